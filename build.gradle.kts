@@ -4,6 +4,7 @@ plugins {
     id("org.springframework.boot") version "3.0.6"
     id("io.spring.dependency-management") version "1.1.0"
     id("org.jsonschema2pojo") version "1.2.1"
+    id("me.champeau.jmh") version "0.7.1"
 }
 
 group = "faang.school"
@@ -23,6 +24,7 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-data-redis")
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-validation")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
     implementation("org.springframework.cloud:spring-cloud-starter-openfeign:4.0.2")
     implementation("org.springframework.retry:spring-retry:2.0.10")
     annotationProcessor("org.springframework.boot:spring-boot-configuration-processor")
@@ -64,6 +66,7 @@ dependencies {
     implementation("com.fasterxml.jackson.datatype:jackson-datatype-jsr310")
 
     implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-csv:2.13.0")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
 
     /**
      * Test containers
@@ -106,6 +109,12 @@ tasks.withType<Test> {
 
 val test by tasks.getting(Test::class) { testLogging.showStandardStreams = true }
 
+jmh {
+    warmupIterations.set(2)
+    iterations.set(3)
+    fork.set(1)
+}
+
 tasks.bootJar {
     archiveFileName.set("service.jar")
 }
@@ -0,0 +1,60 @@
+package faang.school.postservice.benchmark;
+
+import faang.school.postservice.config.moderation.CurseWordMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Сравнение прежней проверки комментария (split по \W+ и поиск токенов в HashSet)
+ * с автоматом CurseWordMatcher на словаре curse-words.txt.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CurseWordMatcherBenchmark {
+    private static final String CLEAN_SENTENCE = "Отличный пост, спасибо за подробный разбор и примеры кода! ";
+
+    @Param({"60", "2000"})
+    private int commentLength;
+
+    private Set<String> curseWords;
+    private CurseWordMatcher matcher;
+    private String comment;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream dictionary = getClass().getClassLoader().getResourceAsStream("curse-words.txt")) {
+            String content = new String(dictionary.readAllBytes(), StandardCharsets.UTF_8);
+            curseWords = Arrays.stream(content.split("\\s+"))
+                    .filter(word -> !word.isBlank())
+                    .map(String::toLowerCase)
+                    .collect(Collectors.toSet());
+        }
+        matcher = CurseWordMatcher.compile(curseWords);
+        comment = CLEAN_SENTENCE.repeat(Math.max(1, commentLength / CLEAN_SENTENCE.length()));
+    }
+
+    @Benchmark
+    public boolean tokenSetLookup() {
+        return Arrays.stream(comment.split("\\W+")).anyMatch(curseWords::contains);
+    }
+
+    @Benchmark
+    public boolean automatonScan() {
+        return matcher.containsMatch(comment);
+    }
+}
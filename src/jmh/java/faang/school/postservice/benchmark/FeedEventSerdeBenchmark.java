@@ -0,0 +1,93 @@
+package faang.school.postservice.benchmark;
+
+import faang.school.postservice.kafka.event.FeedUpdateEvent;
+import faang.school.postservice.kafka.event.NewLikeEvent;
+import faang.school.postservice.kafka.serde.FeedEventDeserializer;
+import faang.school.postservice.kafka.serde.FeedEventSerializer;
+import faang.school.postservice.model.LikeType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Сравнение JSON-сериализации событий Kafka с бинарным форматом FeedEventCodec: ops/sec на запись и чтение
+ * и размер события в байтах (печатается один раз при старте).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FeedEventSerdeBenchmark {
+    private static final String TOPIC = "feed-updates";
+
+    @Param({"100", "1000"})
+    private int subscribers;
+
+    private JsonSerializer<Object> jsonSerializer;
+    private JsonDeserializer<FeedUpdateEvent> jsonDeserializer;
+    private FeedEventSerializer binarySerializer;
+    private FeedEventDeserializer binaryDeserializer;
+    private FeedUpdateEvent feedUpdate;
+    private byte[] feedUpdateJson;
+    private byte[] feedUpdateBinary;
+
+    @Setup
+    public void setUp() {
+        jsonSerializer = new JsonSerializer<>();
+        jsonDeserializer = new JsonDeserializer<>(FeedUpdateEvent.class, false);
+        binarySerializer = new FeedEventSerializer();
+        binaryDeserializer = new FeedEventDeserializer();
+
+        long[] subscriberIds = LongStream.range(0, subscribers)
+                .map(i -> 1_000_000L + i * 7)
+                .toArray();
+        feedUpdate = FeedUpdateEvent.builder()
+                .postId(42_000_000L)
+                .authorId(1_234_567L)
+                .subscriberIds(subscriberIds)
+                .publishedAt(LocalDateTime.of(2024, 5, 1, 12, 30, 15))
+                .build();
+        feedUpdateJson = writeJson();
+        feedUpdateBinary = writeBinary();
+
+        NewLikeEvent like = NewLikeEvent.builder()
+                .postId(42_000_000L)
+                .userId(1_234_567L)
+                .createdAt(LocalDateTime.of(2024, 5, 1, 12, 30, 15))
+                .type(LikeType.LIKE)
+                .build();
+        System.out.printf("%nFeedUpdateEvent(%d ids): json %d bytes, binary %d bytes; NewLikeEvent: json %d bytes, binary %d bytes%n",
+                subscribers, feedUpdateJson.length, feedUpdateBinary.length,
+                jsonSerializer.serialize(TOPIC, like).length, binarySerializer.serialize(TOPIC, like).length);
+    }
+
+    @Benchmark
+    public byte[] writeJson() {
+        return jsonSerializer.serialize(TOPIC, feedUpdate);
+    }
+
+    @Benchmark
+    public byte[] writeBinary() {
+        return binarySerializer.serialize(TOPIC, feedUpdate);
+    }
+
+    @Benchmark
+    public FeedUpdateEvent readJson() {
+        return jsonDeserializer.deserialize(TOPIC, feedUpdateJson);
+    }
+
+    @Benchmark
+    public Object readBinary() {
+        return binaryDeserializer.deserialize(TOPIC, feedUpdateBinary);
+    }
+}
@@ -0,0 +1,84 @@
+package faang.school.postservice.benchmark;
+
+import faang.school.postservice.service.feed.FeedEntry;
+import faang.school.postservice.service.feed.FeedTimelineMerger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение push- и pull-модели ленты на in-memory модели ZSET:
+ * push платит за пост записью в ленту каждого подписчика, pull - слиянием timeline знаменитостей при чтении.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FeedFanOutBenchmark {
+    private static final int FEED_SIZE = 500;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000", "100000"})
+    private int followers;
+
+    @Param({"1", "10"})
+    private int followedCelebrities;
+
+    private List<TreeSet<FeedEntry>> subscriberFeeds;
+    private List<List<FeedEntry>> timelines;
+    private long nextPostId;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        subscriberFeeds = new ArrayList<>(followers);
+        for (int i = 0; i < followers; i++) {
+            subscriberFeeds.add(new TreeSet<>(FeedEntry.NEWEST_FIRST));
+        }
+        timelines = new ArrayList<>(followedCelebrities + 1);
+        for (int timeline = 0; timeline <= followedCelebrities; timeline++) {
+            List<FeedEntry> entries = new ArrayList<>(FEED_SIZE);
+            for (int i = FEED_SIZE; i > 0; i--) {
+                long postId = (long) timeline * FEED_SIZE + i;
+                entries.add(new FeedEntry(postId, i * 1000L + timeline));
+            }
+            timelines.add(entries);
+        }
+        nextPostId = 1;
+    }
+
+    @Benchmark
+    public int pushFanOutPerPost() {
+        FeedEntry entry = new FeedEntry(nextPostId, nextPostId++);
+        for (TreeSet<FeedEntry> feed : subscriberFeeds) {
+            feed.add(entry);
+            if (feed.size() > FEED_SIZE) {
+                feed.pollLast();
+            }
+        }
+        return subscriberFeeds.size();
+    }
+
+    @Benchmark
+    public List<FeedEntry> pushReadPage() {
+        return timelines.get(0).subList(0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<FeedEntry> pullMergeReadPage() {
+        List<List<FeedEntry>> pages = new ArrayList<>(timelines.size());
+        for (List<FeedEntry> timeline : timelines) {
+            pages.add(timeline.subList(0, PAGE_SIZE));
+        }
+        return FeedTimelineMerger.merge(pages, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,104 @@
+package faang.school.postservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import faang.school.postservice.dto.post.PostVisibility;
+import faang.school.postservice.redis.entities.CommentCache;
+import faang.school.postservice.redis.entities.PostCache;
+import faang.school.postservice.repository.redis.SmilePostCacheStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.core.convert.MappingRedisConverter;
+import org.springframework.data.redis.core.convert.RedisData;
+import org.springframework.data.redis.core.mapping.RedisMappingContext;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение текущего @RedisHash-маппинга PostCache с одним Smile-значением: ops/sec и размер поста в байтах
+ * (размер печатается один раз при старте).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PostCacheSerializationBenchmark {
+    private MappingRedisConverter hashConverter;
+    private ObjectMapper smileMapper;
+    private PostCache post;
+    private RedisData hashData;
+    private byte[] smileData;
+
+    @Setup
+    public void setUp() throws Exception {
+        hashConverter = new MappingRedisConverter(new RedisMappingContext());
+        hashConverter.afterPropertiesSet();
+        smileMapper = SmilePostCacheStore.createSmileMapper();
+        post = createPost();
+        hashData = writeHash();
+        smileData = writeSmile();
+
+        long hashBytes = hashData.getBucket().rawMap().entrySet().stream()
+                .mapToLong(field -> field.getKey().getBytes(StandardCharsets.UTF_8).length + field.getValue().length)
+                .sum();
+        System.out.printf("%nPostCache size: hash %d fields / %d bytes, smile %d bytes%n",
+                hashData.getBucket().rawMap().size(), hashBytes, smileData.length);
+    }
+
+    @Benchmark
+    public RedisData writeHash() {
+        RedisData data = new RedisData();
+        hashConverter.write(post, data);
+        return data;
+    }
+
+    @Benchmark
+    public PostCache readHash() {
+        return hashConverter.read(PostCache.class, hashData);
+    }
+
+    @Benchmark
+    public byte[] writeSmile() throws Exception {
+        return smileMapper.writeValueAsBytes(post);
+    }
+
+    @Benchmark
+    public PostCache readSmile() throws Exception {
+        return smileMapper.readValue(smileData, PostCache.class);
+    }
+
+    private PostCache createPost() {
+        LocalDateTime now = LocalDateTime.now();
+        LinkedHashSet<CommentCache> comments = new LinkedHashSet<>();
+        for (long i = 1; i <= 3; i++) {
+            comments.add(CommentCache.builder()
+                    .id(i)
+                    .postId(1L)
+                    .authorId(100L + i)
+                    .content("Comment number " + i + " on a fairly popular post")
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        return PostCache.builder()
+                .id(1L)
+                .authorId(100L)
+                .content("A post body of typical length that gets shown in many feeds at once. ".repeat(4))
+                .likesCount(12_345L)
+                .commentsCount(678L)
+                .createdAt(now)
+                .updatedAt(now)
+                .publishedAt(now)
+                .verified(true)
+                .published(true)
+                .visibility(PostVisibility.PUBLIC)
+                .lastComments(comments)
+                .build();
+    }
+}
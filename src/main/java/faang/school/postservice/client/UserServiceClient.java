@@ -1,5 +1,6 @@
 package faang.school.postservice.client;
 
+import faang.school.postservice.dto.user.SubscriberIdsPage;
 import faang.school.postservice.dto.user.UserDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -7,6 +8,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
 import java.util.Optional;
@@ -29,6 +31,26 @@ public interface UserServiceClient {
     @GetMapping("/api/v1/projects/subscribers/{projectId}")
     List<Long> getProjectSubscriptions(@PathVariable long projectId);
 
+    @GetMapping("/api/v1/users/subscribers/ids/{userId}/page")
+    SubscriberIdsPage getUserSubscriberIdsPage(
+            @PathVariable long userId,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam("limit") int limit
+    );
+
+    @GetMapping("/api/v1/projects/subscribers/{projectId}/page")
+    SubscriberIdsPage getProjectSubscriberIdsPage(
+            @PathVariable long projectId,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam("limit") int limit
+    );
+
+    @GetMapping("/api/v1/users/followees/ids/{userId}")
+    List<Long> getUserFolloweeIds(@PathVariable long userId);
+
+    @GetMapping("/api/v1/projects/subscriptions/ids/{userId}")
+    List<Long> getUserProjectSubscriptionIds(@PathVariable long userId);
+
     @GetMapping("/api/v1/users/all/ids")
     List<Long> getAllUserIds();
 
@@ -9,10 +9,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
@@ -30,9 +33,17 @@ public class ExecutorConfig {
     @Value("${spring.scheduler.comment.moderator.treads-count}")
     private int threadsCountCommentModerator;
 
+    @Value("${spring.scheduler.comment.moderator.queue-capacity:20}")
+    private int queueCapacityCommentModerator;
+
+    // CommentModerationStage выдаёт threads + queue-capacity разрешений и возвращает их, пока поток ещё занят,
+    // поэтому очередь вмещает все разрешения сразу и пул не отклоняет задачи
     @Bean(name = "executorCommentModerator")
     public ExecutorService executorCommentModerator() {
-        return Executors.newFixedThreadPool(threadsCountCommentModerator);
+        return new ThreadPoolExecutor(threadsCountCommentModerator, threadsCountCommentModerator,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threadsCountCommentModerator + queueCapacityCommentModerator),
+                new CustomizableThreadFactory("comment-moderator-"));
     }
 
     @Bean(name = "executorPostPublisher")
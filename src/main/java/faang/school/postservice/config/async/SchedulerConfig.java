@@ -0,0 +1,42 @@
+package faang.school.postservice.config.async;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Планировщики задач @Scheduled.
+ * Свой бин TaskScheduler отключает автоконфигурацию Spring Boot, поэтому планировщик по умолчанию
+ * (bean taskScheduler) объявлен здесь же с теми же свойствами spring.task.scheduling.
+ * Relay outbox работает на отдельном потоке, чтобы долгая рассылка не задерживала модерацию и сверку счётчиков.
+ */
+@Configuration
+public class SchedulerConfig {
+
+    @Value("${spring.task.scheduling.pool.size:1}")
+    private int poolSize;
+
+    @Value("${spring.task.scheduling.thread-name-prefix:scheduling-}")
+    private String threadNamePrefix;
+
+    @Bean(name = "taskScheduler")
+    public TaskScheduler taskScheduler() {
+        return scheduler(poolSize, threadNamePrefix);
+    }
+
+    @Bean(name = "outboxRelayScheduler")
+    public TaskScheduler outboxRelayScheduler() {
+        return scheduler(1, "outbox-relay-");
+    }
+
+    private ThreadPoolTaskScheduler scheduler(int poolSize, String threadNamePrefix) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(30);
+        return scheduler;
+    }
+}
@@ -1,9 +1,14 @@
 package faang.school.postservice.config.kafka;
 
+import faang.school.postservice.kafka.consumer.KafkaConsumerMetrics;
+import faang.school.postservice.kafka.serde.FeedEventDeserializer;
+import faang.school.postservice.kafka.serde.FeedEventSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -17,10 +22,14 @@ import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.listener.ContainerProperties;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
-import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -31,54 +40,122 @@ public class KafkaConfig {
     @Value("${spring.data.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${spring.data.kafka.topics.partitions:6}")
+    private int topicPartitions;
+
+    @Value("${spring.data.kafka.topics.replicas:1}")
+    private int topicReplicas;
+
+    @Value("${spring.data.kafka.consumer.concurrency:3}")
+    private int listenerConcurrency;
+
+    @Value("${spring.data.kafka.producer.linger-ms:10}")
+    private int producerLingerMs;
+
+    @Value("${spring.data.kafka.producer.batch-size:65536}")
+    private int producerBatchSize;
+
+    @Value("${spring.data.kafka.producer.compression-type:lz4}")
+    private String producerCompressionType;
+
+    @Value("${spring.data.kafka.serde:json}")
+    private String serde;
+
+    @Value("${spring.data.kafka.retry.attempts:4}")
+    private int retryAttempts;
+
+    @Value("${spring.data.kafka.retry.delay-ms:1000}")
+    private long retryDelayMs;
+
+    @Value("${spring.data.kafka.retry.multiplier:2}")
+    private double retryMultiplier;
+
+    @Value("${spring.data.kafka.retry.max-delay-ms:60000}")
+    private long retryMaxDelayMs;
+
     @Bean
     public NewTopic newPostsTopic() {
-        return TopicBuilder.name("new-posts").build();
+        return TopicBuilder.name("new-posts")
+                .partitions(topicPartitions)
+                .replicas(topicReplicas)
+                .build();
     }
 
     @Bean
     public NewTopic newLikesTopic() {
-        return TopicBuilder.name("new-likes").build();
+        return TopicBuilder.name("new-likes")
+                .partitions(topicPartitions)
+                .replicas(topicReplicas)
+                .build();
     }
 
     @Bean
     public NewTopic newCommentsTopic() {
-        return TopicBuilder.name("new-comments").build();
+        return TopicBuilder.name("new-comments")
+                .partitions(topicPartitions)
+                .replicas(topicReplicas)
+                .build();
     }
 
     @Bean
-    public ConsumerFactory<String, Object> consumerFactory() {
+    public NewTopic feedUpdatesTopic() {
+        return TopicBuilder.name("feed-updates")
+                .partitions(topicPartitions)
+                .replicas(topicReplicas)
+                .build();
+    }
+
+    @Bean
+    public NewTopic newLikesDltTopic() {
+        return TopicBuilder.name("new-likes-dlt")
+                .partitions(topicPartitions)
+                .replicas(topicReplicas)
+                .build();
+    }
+
+    @Bean
+    public ConsumerFactory<String, Object> consumerFactory(MeterRegistry meterRegistry) {
         Map<String, Object> props = new HashMap<>();
-        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, "feed-service");
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
 
-        JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
-        jsonDeserializer.addTrustedPackages("*");
-
-        return new DefaultKafkaConsumerFactory<>(props,
+        // Битое сообщение не валит poll, а уходит в обработчик ошибок и дальше в DLT
+        DefaultKafkaConsumerFactory<String, Object> consumerFactory = new DefaultKafkaConsumerFactory<>(props,
                 new StringDeserializer(),
-                jsonDeserializer);
+                new ErrorHandlingDeserializer<>(new FeedEventDeserializer()));
+        // records-lag-max и прочие метрики консьюмера
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return consumerFactory;
     }
 
     @Bean
-    public ProducerFactory<String, Object> producerFactory() {
+    public ProducerFactory<String, Object> producerFactory(MeterRegistry meterRegistry) {
         Map<String, Object> configProps = new HashMap<>();
-        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
         // Настройки для надежности доставки
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
-        return new DefaultKafkaProducerFactory<>(configProps);
+        // Пакетирование и сжатие: лайки и комментарии отправляются пачками, а не запросом на событие
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, producerLingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, producerBatchSize);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, producerCompressionType);
+        // По умолчанию json; бинарный формат включается только после выкатки консьюмеров, которые его читают.
+        // FeedEventSerializer нужен в обоих режимах: он пропускает в DLT исходные байты битых записей
+        FeedEventSerializer valueSerializer = new FeedEventSerializer(!"json".equalsIgnoreCase(serde));
+        DefaultKafkaProducerFactory<String, Object> producerFactory =
+                new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), valueSerializer);
+        producerFactory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return producerFactory;
     }
 
     @Bean
-    public KafkaTemplate<String, Object> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, Object> kafkaTemplate(ProducerFactory<String, Object> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
     }
 
     @Bean
@@ -94,7 +171,42 @@ public class KafkaConfig {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(listenerConcurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> batchKafkaListenerContainerFactory(
+            ConsumerFactory<String, Object> consumerFactory,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            KafkaConsumerMetrics kafkaConsumerMetrics) {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(listenerConcurrency);
+        factory.setBatchListener(true);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(batchErrorHandler(kafkaTemplate, kafkaConsumerMetrics));
         return factory;
     }
+
+    // Retry topics не работают с batch-листенерами: пачка повторяется с экспоненциальной паузой,
+    // а запись, на которую указал BatchListenerFailedException, после исчерпания попыток уходит в <topic>-dlt
+    private DefaultErrorHandler batchErrorHandler(KafkaTemplate<String, Object> kafkaTemplate,
+                                                  KafkaConsumerMetrics kafkaConsumerMetrics) {
+        DeadLetterPublishingRecoverer deadLetterRecoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, ex) -> new TopicPartition(record.topic() + "-dlt", record.partition()));
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(retryAttempts - 1);
+        backOff.setInitialInterval(retryDelayMs);
+        backOff.setMultiplier(retryMultiplier);
+        backOff.setMaxInterval(retryMaxDelayMs);
+
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler((record, ex) -> {
+            kafkaConsumerMetrics.recordDeadLetter(record.topic());
+            deadLetterRecoverer.accept(record, ex);
+        }, backOff);
+        errorHandler.setRetryListeners(kafkaConsumerMetrics);
+        return errorHandler;
+    }
 }
\ No newline at end of file
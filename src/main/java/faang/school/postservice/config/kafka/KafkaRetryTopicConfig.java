@@ -0,0 +1,22 @@
+package faang.school.postservice.config.kafka;
+
+import faang.school.postservice.kafka.consumer.KafkaConsumerMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationSupport;
+
+/**
+ * Неблокирующие ретраи для @RetryableTopic-листенеров: упавшая запись уходит в топик *-retry-N
+ * и не держит партицию, после исчерпания попыток - в *-dlt.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class KafkaRetryTopicConfig extends RetryTopicConfigurationSupport {
+    private final KafkaConsumerMetrics kafkaConsumerMetrics;
+
+    @Override
+    protected void configureCustomizers(CustomizersConfigurer customizersConfigurer) {
+        customizersConfigurer.customizeErrorHandler(errorHandler ->
+                errorHandler.setRetryListeners(kafkaConsumerMetrics));
+    }
+}
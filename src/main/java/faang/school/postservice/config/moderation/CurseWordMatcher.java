@@ -0,0 +1,267 @@
+package faang.school.postservice.config.moderation;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeSet;
+
+/**
+ * Автомат Ахо-Корасик над нормализованными кодпоинтами.
+ * Каждый шаблон обрамлён разделителем, а текст подаётся с разделителями по краям и со
+ * схлопнутыми сериями не-буквенных символов, поэтому совпадение всегда приходится на целые слова
+ * или фразы. Текст проходит автомат дважды параллельно: строго и со склеенными словами, разделёнными
+ * одним знаком без пробела (f.u.c.k). Для каждого шаблона от трёх букв добавлены варианты с одной
+ * буквой, заменённой на *, поэтому маскировка одной звёздочкой (f*ck) тоже находится, ценой роста автомата
+ * примерно в длину шаблона раз. Проверка текста выполняется за один проход без аллокаций.
+ */
+public final class CurseWordMatcher {
+    private static final int SEPARATOR = ' ';
+    private static final int SEPARATOR_SYMBOL = 0;
+    private static final int WILDCARD = '*';
+    private static final int MIN_WILDCARD_LETTERS = 3;
+    private static final int ROOT = 0;
+
+    private final int[] alphabet;
+    private final int[] transitions;
+    private final boolean[] accepting;
+    private final int symbolCount;
+    private final int startState;
+
+    private CurseWordMatcher(int[] alphabet, int[] transitions, boolean[] accepting) {
+        this.alphabet = alphabet;
+        this.symbolCount = alphabet.length + 2;
+        this.transitions = transitions;
+        this.accepting = accepting;
+        this.startState = transitions[SEPARATOR_SYMBOL];
+    }
+
+    /**
+     * Слова фразы в шаблоне разделяются пробелами или подчёркиваниями.
+     */
+    public static CurseWordMatcher compile(Collection<String> patterns) {
+        List<int[]> normalizedPatterns = new ArrayList<>();
+        TreeSet<Integer> codePoints = new TreeSet<>();
+        for (String pattern : patterns) {
+            int[] normalized = normalizePattern(pattern);
+            if (normalized.length > 2) {
+                normalizedPatterns.add(normalized);
+                normalizedPatterns.addAll(wildcardVariants(normalized));
+                Arrays.stream(normalized).filter(cp -> cp != SEPARATOR).forEach(codePoints::add);
+                codePoints.add(WILDCARD);
+            }
+        }
+        int[] alphabet = codePoints.stream().mapToInt(Integer::intValue).toArray();
+        return build(alphabet, normalizedPatterns);
+    }
+
+    public boolean containsMatch(CharSequence text) {
+        if (accepting.length == 1) {
+            return false;
+        }
+        // strict видит границу на каждом не-буквенном символе, joined пропускает одиночный знак внутри слова
+        int strict = startState;
+        int joined = startState;
+        boolean strictAfterSeparator = true;
+        boolean joinedAfterSeparator = true;
+        int pendingMarks = 0;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            int codePoint = Character.codePointAt(text, i);
+            i += Character.charCount(codePoint);
+            if (isMark(codePoint)) {
+                continue;
+            }
+            int folded = fold(codePoint);
+            if (isWordChar(folded)) {
+                int symbol = symbolOf(folded);
+                if (pendingMarks > 1) {
+                    joined = transitions[joined * symbolCount + SEPARATOR_SYMBOL];
+                    if (accepting[joined]) {
+                        return true;
+                    }
+                }
+                strict = transitions[strict * symbolCount + symbol];
+                joined = transitions[joined * symbolCount + symbol];
+                strictAfterSeparator = false;
+                joinedAfterSeparator = false;
+                pendingMarks = 0;
+                if (accepting[strict] || accepting[joined]) {
+                    return true;
+                }
+                continue;
+            }
+            if (!strictAfterSeparator) {
+                strict = transitions[strict * symbolCount + SEPARATOR_SYMBOL];
+                strictAfterSeparator = true;
+                if (accepting[strict]) {
+                    return true;
+                }
+            }
+            if (joinedAfterSeparator) {
+                continue;
+            }
+            if (Character.isWhitespace(folded)) {
+                joined = transitions[joined * symbolCount + SEPARATOR_SYMBOL];
+                joinedAfterSeparator = true;
+                pendingMarks = 0;
+                if (accepting[joined]) {
+                    return true;
+                }
+            } else {
+                pendingMarks++;
+            }
+        }
+        return !strictAfterSeparator && accepting[transitions[strict * symbolCount + SEPARATOR_SYMBOL]]
+                || !joinedAfterSeparator && accepting[transitions[joined * symbolCount + SEPARATOR_SYMBOL]];
+    }
+
+    /**
+     * Приводит кодпоинт к форме, в которой сравниваются словарь и текст: нижний регистр,
+     * полноширинные формы как ASCII, ё как е и й как и (в разложенном виде диакритика отбрасывается),
+     * leet-замены (@ - a, 0 - o, 1 и l - i, 3 - e, 4 - a, $ и 5 - s, 7 - t) и кириллица,
+     * совпадающая по начертанию с латиницей (а, е, о, р, с, у, х, к), как латиница.
+     */
+    static int fold(int codePoint) {
+        int folded = codePoint;
+        if (folded >= 0xFF01 && folded <= 0xFF5E) {
+            folded -= 0xFEE0;
+        }
+        folded = Character.toLowerCase(folded);
+        return switch (folded) {
+            case 'й' -> 'и';
+            case '@', '4', 'а' -> 'a';
+            case '0', 'о' -> 'o';
+            case '1', 'l' -> 'i';
+            case '3', 'е', 'ё' -> 'e';
+            case '$', '5' -> 's';
+            case '7' -> 't';
+            case 'р' -> 'p';
+            case 'с' -> 'c';
+            case 'у' -> 'y';
+            case 'х' -> 'x';
+            case 'к' -> 'k';
+            default -> folded;
+        };
+    }
+
+    private static boolean isWordChar(int folded) {
+        return Character.isLetterOrDigit(folded) || folded == WILDCARD;
+    }
+
+    // Варианты шаблона с одной буквой, заменённой на *
+    private static List<int[]> wildcardVariants(int[] pattern) {
+        long letters = Arrays.stream(pattern).filter(cp -> cp != SEPARATOR && cp != WILDCARD).count();
+        if (letters < MIN_WILDCARD_LETTERS) {
+            return List.of();
+        }
+        List<int[]> variants = new ArrayList<>();
+        for (int i = 0; i < pattern.length; i++) {
+            if (pattern[i] != SEPARATOR && pattern[i] != WILDCARD) {
+                int[] variant = pattern.clone();
+                variant[i] = WILDCARD;
+                variants.add(variant);
+            }
+        }
+        return variants;
+    }
+
+    private static boolean isMark(int codePoint) {
+        int type = Character.getType(codePoint);
+        return type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK
+                || type == Character.COMBINING_SPACING_MARK;
+    }
+
+    private static int[] normalizePattern(String pattern) {
+        String normalized = Normalizer.normalize(pattern, Normalizer.Form.NFKC);
+        List<Integer> result = new ArrayList<>();
+        result.add(SEPARATOR);
+        normalized.codePoints()
+                .filter(cp -> !isMark(cp))
+                .map(CurseWordMatcher::fold)
+                .forEach(cp -> {
+                    if (isWordChar(cp)) {
+                        result.add(cp);
+                    } else if (result.get(result.size() - 1) != SEPARATOR) {
+                        result.add(SEPARATOR);
+                    }
+                });
+        if (result.get(result.size() - 1) != SEPARATOR) {
+            result.add(SEPARATOR);
+        }
+        return result.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static CurseWordMatcher build(int[] alphabet, List<int[]> patterns) {
+        int symbolCount = alphabet.length + 2;
+        List<int[]> gotoRows = new ArrayList<>();
+        List<Boolean> terminal = new ArrayList<>();
+        gotoRows.add(newRow(symbolCount));
+        terminal.add(false);
+
+        for (int[] pattern : patterns) {
+            int state = ROOT;
+            for (int codePoint : pattern) {
+                int symbol = codePoint == SEPARATOR ? SEPARATOR_SYMBOL : Arrays.binarySearch(alphabet, codePoint) + 1;
+                int next = gotoRows.get(state)[symbol];
+                if (next < 0) {
+                    next = gotoRows.size();
+                    gotoRows.add(newRow(symbolCount));
+                    terminal.add(false);
+                    gotoRows.get(state)[symbol] = next;
+                }
+                state = next;
+            }
+            terminal.set(state, true);
+        }
+
+        int stateCount = gotoRows.size();
+        int[] transitions = new int[stateCount * symbolCount];
+        boolean[] accepting = new boolean[stateCount];
+        int[] fail = new int[stateCount];
+        Queue<Integer> queue = new ArrayDeque<>();
+
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            int next = gotoRows.get(ROOT)[symbol];
+            if (next < 0) {
+                transitions[symbol] = ROOT;
+            } else {
+                transitions[symbol] = next;
+                fail[next] = ROOT;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            accepting[state] = terminal.get(state) || accepting[fail[state]];
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int next = gotoRows.get(state)[symbol];
+                int fallback = transitions[fail[state] * symbolCount + symbol];
+                if (next < 0) {
+                    transitions[state * symbolCount + symbol] = fallback;
+                } else {
+                    transitions[state * symbolCount + symbol] = next;
+                    fail[next] = fallback;
+                    queue.add(next);
+                }
+            }
+        }
+        return new CurseWordMatcher(alphabet, transitions, accepting);
+    }
+
+    private static int[] newRow(int symbolCount) {
+        int[] row = new int[symbolCount];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    // последний символ алфавита - любой кодпоинт, которого нет в словаре
+    private int symbolOf(int codePoint) {
+        int index = Arrays.binarySearch(alphabet, codePoint);
+        return index < 0 ? symbolCount - 1 : index + 1;
+    }
+}
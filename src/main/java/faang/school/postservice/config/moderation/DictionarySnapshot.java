@@ -0,0 +1,20 @@
+package faang.school.postservice.config.moderation;
+
+import java.util.Set;
+
+/**
+ * Неизменяемая версия словаря. Версия - CRC32 содержимого файла, поэтому у всех инстансов,
+ * загрузивших один и тот же словарь, она совпадает; 0 - пустой словарь.
+ * Пока словарь не загружен, действует {@link #EMPTY}: по нему комментарии не проверяются и остаются без вердикта.
+ */
+public record DictionarySnapshot(long version, CurseWordMatcher matcher) {
+    public static final DictionarySnapshot EMPTY = new DictionarySnapshot(0, CurseWordMatcher.compile(Set.of()));
+
+    public boolean isLoaded() {
+        return this != EMPTY;
+    }
+
+    public boolean containsCurseWords(String text) {
+        return matcher.containsMatch(text);
+    }
+}
@@ -1,46 +1,85 @@
 package faang.school.postservice.config.moderation;
 
 import jakarta.annotation.PostConstruct;
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.Arrays;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.zip.CRC32;
 
 @Slf4j
 @Component
 public class ModerationDictionary {
-
-    @Getter
-    private Set<String> curseWords;
+    private final AtomicReference<DictionarySnapshot> snapshot = new AtomicReference<>(DictionarySnapshot.EMPTY);
+    private FileTime loadedModifiedTime;
 
     @Value("${spring.scheduler.comment.moderator.path-curse-words}")
     private Path curseWordsPath;
 
     @PostConstruct
-    public void init(){
-        try (Stream<String> lines = Files.lines(curseWordsPath)){
-            curseWords = lines
-                    .flatMap(ModerationDictionary::getStreamWords)
-                    .map(String::toLowerCase)
-                    .collect(Collectors.toSet());
+    public void init() {
+        reloadIfChanged();
+    }
+
+    /**
+     * Новый автомат собирается в потоке планировщика и подменяет текущий атомарно:
+     * проверки комментариев во время перезагрузки продолжают работать со старой версией.
+     */
+    @Scheduled(fixedDelayString = "${spring.scheduler.comment.moderator.dictionary-reload-ms:30000}",
+            initialDelayString = "${spring.scheduler.comment.moderator.dictionary-reload-ms:30000}")
+    public synchronized void reloadIfChanged() {
+        try {
+            FileTime modifiedTime = Files.getLastModifiedTime(curseWordsPath);
+            if (modifiedTime.equals(loadedModifiedTime)) {
+                return;
+            }
+            byte[] content = Files.readAllBytes(curseWordsPath);
+            long version = checksum(content);
+            if (version != snapshot.get().version()) {
+                snapshot.set(new DictionarySnapshot(version, CurseWordMatcher.compile(getEntries(content))));
+                log.info("Loaded curse words dictionary version {}", version);
+            }
+            loadedModifiedTime = modifiedTime;
         } catch (IOException e) {
-            log.warn("Dictionary  of curse words hasn't been created", e);
+            if (snapshot.get().isLoaded()) {
+                log.warn("Dictionary of curse words {} can't be read, keeping version {}",
+                        curseWordsPath, snapshot.get().version(), e);
+            } else {
+                log.error("Dictionary of curse words {} can't be read, comments stay unverified until it loads",
+                        curseWordsPath, e);
+            }
         }
     }
 
-    private static Stream<String> getStreamWords(String text) {
-        return Arrays.stream(text.split("\\W+"));
+    public DictionarySnapshot getSnapshot() {
+        return snapshot.get();
     }
 
     public boolean checkCurseWordsInComment(String text) {
-        return getStreamWords(text).anyMatch(curseWords::contains);
+        return snapshot.get().containsCurseWords(text);
+    }
+
+    // записи словаря разделены пробельными символами, слова фразы соединяются через '_'
+    private static Set<String> getEntries(byte[] content) {
+        return Arrays.stream(new String(content, StandardCharsets.UTF_8).split("\\s+"))
+                .filter(entry -> !entry.isBlank())
+                .map(String::toLowerCase)
+                .collect(Collectors.toSet());
+    }
+
+    private static long checksum(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return crc.getValue();
     }
 }
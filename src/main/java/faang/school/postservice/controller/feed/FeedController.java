@@ -3,6 +3,7 @@ package faang.school.postservice.controller.feed;
 import faang.school.postservice.config.context.UserContext;
 import faang.school.postservice.dto.feed.FeedResponse;
 import faang.school.postservice.exception.FeedAccessDeniedException;
+import faang.school.postservice.exception.InvalidFeedCursorException;
 import faang.school.postservice.exception.UserNotFoundException;
 import faang.school.postservice.service.feed.FeedService;
 import jakarta.validation.constraints.Max;
@@ -31,20 +32,20 @@ public class FeedController {
 
     @GetMapping
     public ResponseEntity<FeedResponse> getFeed(
-            @RequestParam(required = false) Long lastPostId,
+            @RequestParam(required = false) String cursor,
             @RequestParam(required = false, defaultValue = "20") @Max(50) int pageSize
     ) {
         Long currentUserId = userContext.getUserId();
-        return ResponseEntity.ok(feedService.getFeed(currentUserId, lastPostId, pageSize));
+        return ResponseEntity.ok(feedService.getFeed(currentUserId, cursor, pageSize));
     }
 
     @GetMapping("/user/{userId}")
     public ResponseEntity<FeedResponse> getUserFeed(
             @PathVariable Long userId,
-            @RequestParam(required = false) Long lastPostId,
+            @RequestParam(required = false) String cursor,
             @RequestParam(required = false, defaultValue = "20") @Max(50) int pageSize
     ) {
-        return ResponseEntity.ok(feedService.getFeed(userId, lastPostId, pageSize));
+        return ResponseEntity.ok(feedService.getFeed(userId, cursor, pageSize));
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -59,4 +60,10 @@ public class FeedController {
                                 .collect(Collectors.joining(", "))
                 );
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(InvalidFeedCursorException.class)
+    public ResponseEntity<String> handleInvalidCursor(InvalidFeedCursorException ex) {
+        log.warn(ex.getMessage());
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+}
@@ -0,0 +1,15 @@
+package faang.school.postservice.dto.comment;
+
+import java.time.LocalDateTime;
+
+public interface CommentModerationView {
+    Long getId();
+
+    String getContent();
+
+    Long getPostId();
+
+    Long getAuthorId();
+
+    LocalDateTime getCreatedAt();
+}
@@ -11,4 +11,5 @@ public class FeedResponse {
     private List<PostDTO> posts;
     private boolean hasMore;
     private Long lastPostId;
+    private String nextCursor;
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package faang.school.postservice.dto.post;
+
+public interface PostCounterDrift {
+    Long getPostId();
+
+    Long getStoredLikes();
+
+    Long getActualLikes();
+
+    Long getStoredComments();
+
+    Long getActualComments();
+}
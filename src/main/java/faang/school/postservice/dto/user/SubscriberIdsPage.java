@@ -0,0 +1,16 @@
+package faang.school.postservice.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SubscriberIdsPage {
+    private long[] ids;
+    private Long nextCursor;
+    private Long total;
+}
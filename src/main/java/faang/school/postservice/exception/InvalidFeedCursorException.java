@@ -0,0 +1,7 @@
+package faang.school.postservice.exception;
+
+public class InvalidFeedCursorException extends RuntimeException {
+    public InvalidFeedCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
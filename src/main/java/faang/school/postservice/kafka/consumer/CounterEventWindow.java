@@ -0,0 +1,39 @@
+package faang.school.postservice.kafka.consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Граница задержки событий счётчиков. Сверка пересчитывает лайки и комментарии старше settle-seconds
+ * по таблицам, поэтому событие, пролежавшее в ретраях или DLT дольше max-event-age-seconds, в счётчик
+ * не применяется: его уже учла или учтёт сверка. Запас между порогами покрывает расхождение часов
+ * приложения и базы; время события - локальное время инстанса, как и у сущностей.
+ */
+@Component
+public class CounterEventWindow {
+    private final Duration maxEventAge;
+
+    public CounterEventWindow(
+            @Value("${spring.scheduler.counter-reconciliation.settle-seconds:300}") long settleSeconds,
+            @Value("${spring.scheduler.counter-reconciliation.max-event-age-seconds:240}") long maxEventAgeSeconds) {
+        if (maxEventAgeSeconds >= settleSeconds) {
+            throw new IllegalStateException("max-event-age-seconds (" + maxEventAgeSeconds
+                    + ") must be less than settle-seconds (" + settleSeconds + ")");
+        }
+        this.maxEventAge = Duration.ofSeconds(maxEventAgeSeconds);
+    }
+
+    // События без времени (старый формат) считаются свежими
+    public boolean isStale(LocalDateTime occurredAt) {
+        if (occurredAt == null) {
+            return false;
+        }
+        Instant occurred = occurredAt.atZone(ZoneId.systemDefault()).toInstant();
+        return occurred.isBefore(Instant.now().minus(maxEventAge));
+    }
+}
@@ -0,0 +1,70 @@
+package faang.school.postservice.kafka.consumer;
+
+import faang.school.postservice.repository.ProcessedEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Окно дедупликации событий Kafka: id события записывается в processed_event в той же транзакции,
+ * что и обновление счётчиков, поэтому повторная доставка после ребаланса или ретрая не меняет их второй раз,
+ * а при откате id исчезает вместе с обновлением и ретрай применит событие.
+ * Записи старше dedup-window-seconds удаляются по расписанию.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventDeduplicator {
+    private final ProcessedEventRepository processedEventRepository;
+
+    @Value("${spring.data.kafka.consumer.dedup-window-seconds:86400}")
+    private long dedupWindowSeconds;
+
+    public boolean claim(String consumer, UUID eventId) {
+        return eventId == null || claimAll(consumer, List.of(eventId)).contains(eventId);
+    }
+
+    // Вызывается внутри транзакции слушателя
+    public Set<UUID> claimAll(String consumer, Collection<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(processedEventRepository.insertNew(consumer, eventIds));
+    }
+
+    // Изменения вне базы (счётчики в Redis) выполняются только после коммита, чтобы откат не применял их дважды
+    public void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${spring.data.kafka.consumer.dedup-cleanup-interval-ms:600000}")
+    public void purgeExpired() {
+        int purged = processedEventRepository.deleteProcessedBefore(
+                OffsetDateTime.now().minusSeconds(dedupWindowSeconds));
+        if (purged > 0) {
+            log.info("Purged {} processed event ids older than {}s", purged, dedupWindowSeconds);
+        }
+    }
+}
@@ -4,14 +4,23 @@ import faang.school.postservice.kafka.event.NewCommentEvent;
 import faang.school.postservice.redis.entities.CommentCache;
 import faang.school.postservice.redis.entities.PostCache;
 import faang.school.postservice.repository.PostRepository;
-import faang.school.postservice.repository.redis.PostCacheRepository;
+import faang.school.postservice.repository.redis.PostCacheStore;
+import faang.school.postservice.service.cash.PostCounterCache;
+import faang.school.postservice.service.cash.PostNearCache;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.common.KafkaException;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.DltStrategy;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
 import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
 
 import java.util.LinkedHashSet;
@@ -21,16 +30,41 @@ import java.util.stream.Collectors;
 @Component
 @RequiredArgsConstructor
 public class KafkaCommentConsumer {
+    private static final String DEDUP_SCOPE = "comments";
+
     private final PostRepository postRepository;
-    private final PostCacheRepository postCacheRepository;
+    private final PostCacheStore postCacheStore;
+    private final PostNearCache postNearCache;
+    private final PostCounterCache postCounterCache;
+    private final KafkaConsumerMetrics kafkaConsumerMetrics;
+    private final EventDeduplicator eventDeduplicator;
+    private final CounterEventWindow counterEventWindow;
     private final Object lock = new Object();
 
     @Value("${spring.scheduler.comment.moderator.max-page-size}")
     private int maxCommentsPageSize;
 
     @Transactional
+    @RetryableTopic(
+            attempts = "${spring.data.kafka.retry.attempts:4}",
+            backoff = @Backoff(
+                    delayExpression = "${spring.data.kafka.retry.delay-ms:1000}",
+                    multiplierExpression = "${spring.data.kafka.retry.multiplier:2}",
+                    maxDelayExpression = "${spring.data.kafka.retry.max-delay-ms:60000}"),
+            numPartitions = "${spring.data.kafka.topics.partitions:6}",
+            replicationFactor = "${spring.data.kafka.topics.replicas:1}",
+            retryTopicSuffix = "-retry",
+            dltTopicSuffix = "-dlt",
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            dltStrategy = DltStrategy.FAIL_ON_ERROR,
+            kafkaTemplate = "kafkaTemplate")
     @KafkaListener(topics = "new-comments", groupId = "feed-service")
     public void handleNewComment(NewCommentEvent event, Acknowledgment acknowledgment) {
+        if (!eventDeduplicator.claim(DEDUP_SCOPE, event.getEventId())) {
+            log.info("Comment event {} for post {} was already applied, skipping", event.getEventId(), event.getPostId());
+            acknowledgment.acknowledge();
+            return;
+        }
         try {
             log.info("Processing comment event for post {}", event.getPostId());
             updateCommentCount(event);
@@ -43,21 +77,38 @@ public class KafkaCommentConsumer {
     }
 
     private void updateCommentCount(NewCommentEvent event) {
+        if (event.isApproval()) {
+            // комментарий уже посчитан при создании, после проверки он только попадает в последние комментарии
+            eventDeduplicator.afterCommit(() -> updateCachedPost(event, 0));
+            return;
+        }
+        if (counterEventWindow.isStale(event.getCreatedAt())) {
+            // задержавшийся дольше окна сверки комментарий уже посчитан ею по таблице comment
+            log.warn("Comment event {} for post {} is older than the reconciliation window, count is left to it",
+                    event.getEventId(), event.getPostId());
+            eventDeduplicator.afterCommit(() -> updateCachedPost(event, 0));
+            return;
+        }
         postRepository.incrementCommentsCount(event.getPostId());
-
-        postCacheRepository.findById(event.getPostId()).ifPresent(post -> {
-            updatePostCacheComments(post, event);
-            postCacheRepository.save(post);
-        });
+        eventDeduplicator.afterCommit(() -> updateCachedPost(event, 1));
     }
 
-    private void updatePostCacheComments(PostCache post, NewCommentEvent event) {
-        long currentComments = post.getCommentsCount() != null ? post.getCommentsCount() : 0L;
-        post.setCommentsCount(currentComments + 1);
+    private void updateCachedPost(NewCommentEvent event, long commentsDelta) {
+        if (event.isVerified()) {
+            postCacheStore.findById(event.getPostId()).ifPresent(post -> {
+                updateLastComments(post, createCommentCache(event));
+                postCacheStore.save(post);
+                // save продлевает TTL поста, счётчики продлеваются вместе с ним, иначе хеш истечёт раньше поста
+                // и инкременты будут молча пропускаться; истёкший хеш пересоздаётся до инкремента
+                postCounterCache.seed(post);
+            });
+        }
+        if (commentsDelta != 0) {
+            postCounterCache.incrementComments(event.getPostId(), commentsDelta);
+        }
 
         if (event.isVerified()) {
-            CommentCache newComment = createCommentCache(event);
-            updateLastComments(post, newComment);
+            postNearCache.invalidate(event.getPostId());
         }
     }
 
@@ -79,6 +130,7 @@ public class KafkaCommentConsumer {
             comments = new LinkedHashSet<>();
         }
         comments.add(newComment);
+        post.setLastComments(comments);
 
         if (comments.size() > maxCommentsPageSize) {
             synchronized (lock) {
@@ -92,4 +144,12 @@ public class KafkaCommentConsumer {
             post.setLastComments(comments);
         }
     }
-}
\ No newline at end of file
+
+    @DltHandler
+    public void handleNewCommentDlt(NewCommentEvent event, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+            Acknowledgment acknowledgment) {
+        log.error("Comment event for post {} moved to {} after all retries", event.getPostId(), topic);
+        kafkaConsumerMetrics.recordDeadLetter(topic);
+        acknowledgment.acknowledge();
+    }
+}
@@ -0,0 +1,22 @@
+package faang.school.postservice.kafka.consumer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.RetryListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class KafkaConsumerMetrics implements RetryListener {
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void failedDelivery(ConsumerRecord<?, ?> record, Exception ex, int deliveryAttempt) {
+        meterRegistry.counter("kafka.consumer.retries", "topic", record.topic()).increment();
+    }
+
+    public void recordDeadLetter(String topic) {
+        meterRegistry.counter("kafka.consumer.dead.letters", "topic", topic).increment();
+    }
+}
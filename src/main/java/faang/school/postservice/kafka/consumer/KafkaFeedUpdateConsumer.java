@@ -0,0 +1,83 @@
+package faang.school.postservice.kafka.consumer;
+
+import faang.school.postservice.kafka.event.FeedUpdateEvent;
+import faang.school.postservice.model.Post;
+import faang.school.postservice.repository.PostRepository;
+import faang.school.postservice.service.feed.UserFeedZSetService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.KafkaException;
+import org.springframework.kafka.annotation.DltHandler;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.DltStrategy;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KafkaFeedUpdateConsumer {
+    private final PostRepository postRepository;
+    private final UserFeedZSetService userFeedZSetService;
+    private final KafkaConsumerMetrics kafkaConsumerMetrics;
+
+    @RetryableTopic(
+            attempts = "${spring.data.kafka.retry.attempts:4}",
+            backoff = @Backoff(
+                    delayExpression = "${spring.data.kafka.retry.delay-ms:1000}",
+                    multiplierExpression = "${spring.data.kafka.retry.multiplier:2}",
+                    maxDelayExpression = "${spring.data.kafka.retry.max-delay-ms:60000}"),
+            numPartitions = "${spring.data.kafka.topics.partitions:6}",
+            replicationFactor = "${spring.data.kafka.topics.replicas:1}",
+            retryTopicSuffix = "-retry",
+            dltTopicSuffix = "-dlt",
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            dltStrategy = DltStrategy.FAIL_ON_ERROR,
+            kafkaTemplate = "kafkaTemplate")
+    @KafkaListener(topics = "feed-updates", groupId = "feed-service",
+            concurrency = "${spring.data.kafka.consumer.feed-updates-concurrency:3}")
+    public void handleFeedUpdate(FeedUpdateEvent event, Acknowledgment acknowledgment) {
+        try {
+            LocalDateTime publishedAt = findFeedTimestamp(event.getPostId());
+            if (publishedAt == null) {
+                log.info("Post {} cannot be added to feed, skipping feed update", event.getPostId());
+                acknowledgment.acknowledge();
+                return;
+            }
+            if (event.isAuthorTimeline()) {
+                userFeedZSetService.addPostToTimeline(event.getAuthorId(), event.getPostId(), publishedAt);
+            } else {
+                userFeedZSetService.addPostToFeeds(event.getSubscriberIds(), event.getPostId(), publishedAt);
+            }
+            acknowledgment.acknowledge();
+            log.debug("Applied feed update for post {} to {} subscribers",
+                    event.getPostId(), event.getSubscriberIds() == null ? 0 : event.getSubscriberIds().length);
+        } catch (Exception e) {
+            log.error("Error processing feed update event for post {}", event.getPostId(), e);
+            throw new KafkaException("Failed to process feed update event", e);
+        }
+    }
+
+    // Оценка в ленте всегда строится от published_at поста, как и при пересборке ленты из БД
+    private LocalDateTime findFeedTimestamp(Long postId) {
+        return postRepository.findById(postId)
+                .filter(Post::canBeAddedToFeed)
+                .map(Post::getPublishedAt)
+                .orElse(null);
+    }
+
+    @DltHandler
+    public void handleFeedUpdateDlt(FeedUpdateEvent event, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+            Acknowledgment acknowledgment) {
+        log.error("Feed update event for post {} moved to {} after all retries", event.getPostId(), topic);
+        kafkaConsumerMetrics.recordDeadLetter(topic);
+        acknowledgment.acknowledge();
+    }
+}
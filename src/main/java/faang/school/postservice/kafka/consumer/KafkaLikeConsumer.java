@@ -2,64 +2,104 @@ package faang.school.postservice.kafka.consumer;
 
 import faang.school.postservice.kafka.event.NewLikeEvent;
 import faang.school.postservice.model.LikeType;
-import faang.school.postservice.redis.entities.PostCache;
 import faang.school.postservice.repository.PostRepository;
-import faang.school.postservice.repository.redis.PostCacheRepository;
+import faang.school.postservice.service.cash.PostCounterCache;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.common.KafkaException;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class KafkaLikeConsumer {
-    private final PostRepository postRepository;
-    private final PostCacheRepository postCacheRepository;
-    private final Map<Long, Object> postLocks = new ConcurrentHashMap<>();
-
-    @Transactional
-    @KafkaListener(topics = "new-likes", groupId = "feed-service")
-    public void handleNewLike(NewLikeEvent event, Acknowledgment acknowledgment) {
-        try {
-            log.info("Processing like event for post {}, type: {}", event.getPostId(), event.getType());
+    private static final String DEDUP_SCOPE = "likes";
 
-            updateLikeCount(event);
+    private final PostRepository postRepository;
+    private final PostCounterCache postCounterCache;
+    private final EventDeduplicator eventDeduplicator;
+    private final CounterEventWindow counterEventWindow;
 
-            acknowledgment.acknowledge();
-            log.info("Successfully processed like event for post {}", event.getPostId());
-        } catch (Exception e) {
-            log.error("Error processing like event for post {}", event.getPostId(), e);
-            throw new KafkaException("Failed to process like event", e);
+    // Лайки до битой записи применяются и коммитятся, поэтому BatchListenerFailedException не откатывает транзакцию
+    @Transactional(dontRollbackOn = BatchListenerFailedException.class)
+    @KafkaListener(topics = "new-likes", groupId = "feed-service",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            properties = "max.poll.records=${spring.data.kafka.consumer.likes-batch-size:500}")
+    public void handleNewLikes(List<NewLikeEvent> events, Acknowledgment acknowledgment) {
+        int invalidIndex = findInvalidEvent(events);
+        applyLikes(invalidIndex < 0 ? events : events.subList(0, invalidIndex));
+        if (invalidIndex >= 0) {
+            // Указываем контейнеру битую запись: записи до нее коммитятся, она сама после ретраев уходит в new-likes-dlt
+            throw new BatchListenerFailedException("Invalid like event at index " + invalidIndex, invalidIndex);
         }
+        acknowledgment.acknowledge();
     }
 
-    private void updateLikeCount(NewLikeEvent event) {
-        if (event.getType() == LikeType.LIKE) {
-            postRepository.incrementLikesCount(event.getPostId());
-        } else {
-            postRepository.decrementLikesCount(event.getPostId());
+    private void applyLikes(List<NewLikeEvent> events) {
+        if (events.isEmpty()) {
+            return;
         }
+        try {
+            Set<UUID> claimedIds = eventDeduplicator.claimAll(DEDUP_SCOPE, events.stream()
+                    .map(NewLikeEvent::getEventId)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .toList());
+            List<NewLikeEvent> freshEvents = filterFreshEvents(events, claimedIds);
+            // Лайк, задержавшийся дольше окна сверки, уже посчитан ею по таблице likes
+            List<NewLikeEvent> liveEvents = freshEvents.stream()
+                    .filter(event -> !counterEventWindow.isStale(event.getCreatedAt()))
+                    .toList();
+            Map<Long, Long> likeDeltas = aggregateLikeDeltas(liveEvents);
+            likeDeltas.forEach(postRepository::addLikesCount);
+            eventDeduplicator.afterCommit(() -> likeDeltas.forEach(postCounterCache::incrementLikes));
+            log.info("Applied {} like events to {} posts, skipped {} duplicates and {} stale events",
+                    liveEvents.size(), likeDeltas.size(), events.size() - freshEvents.size(),
+                    freshEvents.size() - liveEvents.size());
+        } catch (Exception e) {
+            log.error("Error processing batch of {} like events", events.size(), e);
+            throw new KafkaException("Failed to process like events", e);
+        }
+    }
 
-        postCacheRepository.findById(event.getPostId()).ifPresent(post -> {
-            updatePostCacheLikes(post, event);
-            postCacheRepository.save(post);
-        });
+    private List<NewLikeEvent> filterFreshEvents(List<NewLikeEvent> events, Set<UUID> claimedIds) {
+        // Каждый занятый id применяется один раз, даже если событие пришло дважды в одной пачке
+        Set<UUID> unapplied = new HashSet<>(claimedIds);
+        return events.stream()
+                .filter(event -> event.getEventId() == null || unapplied.remove(event.getEventId()))
+                .toList();
     }
 
-    private void updatePostCacheLikes(PostCache post, NewLikeEvent event) {
-        Object lock = postLocks.computeIfAbsent(post.getId(), k -> new Object());
+    private int findInvalidEvent(List<NewLikeEvent> events) {
+        for (int i = 0; i < events.size(); i++) {
+            NewLikeEvent event = events.get(i);
+            if (event == null || event.getPostId() == null || event.getType() == null) {
+                return i;
+            }
+        }
+        return -1;
+    }
 
-        synchronized (lock) {
-            long currentLikes = post.getLikesCount() != null ? post.getLikesCount() : 0L;
-            post.setLikesCount(event.getType() == LikeType.LIKE ?
-                    currentLikes + 1 : Math.max(0, currentLikes - 1));
+    private Map<Long, Long> aggregateLikeDeltas(List<NewLikeEvent> events) {
+        // TreeMap: посты обновляются в одном порядке на всех инстансах, чтобы не ловить дедлоки на строках post
+        Map<Long, Long> likeDeltas = new TreeMap<>();
+        for (NewLikeEvent event : events) {
+            long delta = event.getType() == LikeType.LIKE ? 1 : -1;
+            likeDeltas.merge(event.getPostId(), delta, Long::sum);
         }
+        likeDeltas.values().removeIf(delta -> delta == 0);
+        return likeDeltas;
     }
-}
\ No newline at end of file
+}
@@ -1,38 +1,54 @@
 package faang.school.postservice.kafka.consumer;
 
-import faang.school.postservice.kafka.event.FeedUpdateEvent;
 import faang.school.postservice.kafka.event.NewPostEvent;
 import faang.school.postservice.model.Post;
 import faang.school.postservice.redis.entities.PostCache;
 import faang.school.postservice.repository.PostRepository;
-import faang.school.postservice.repository.redis.PostCacheRepository;
-import faang.school.postservice.service.feed.UserFeedZSetService;
-import faang.school.postservice.service.subscription.SubscriptionService;
+import faang.school.postservice.repository.redis.PostCacheStore;
+import faang.school.postservice.service.cash.PostCounterCache;
+import faang.school.postservice.service.cash.PostNearCache;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.common.KafkaException;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.DltStrategy;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
 import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.LinkedHashSet;
-import java.util.List;
-import java.util.Set;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class KafkaPostConsumer {
-    private final PostCacheRepository postCacheRepository;
+    private final PostCacheStore postCacheStore;
+    private final PostNearCache postNearCache;
+    private final PostCounterCache postCounterCache;
     private final PostRepository postRepository;
-    private final UserFeedZSetService userFeedZSetService;
-    private final SubscriptionService subscriptionService;
+    private final KafkaConsumerMetrics kafkaConsumerMetrics;
 
     @Transactional
+    @RetryableTopic(
+            attempts = "${spring.data.kafka.retry.attempts:4}",
+            backoff = @Backoff(
+                    delayExpression = "${spring.data.kafka.retry.delay-ms:1000}",
+                    multiplierExpression = "${spring.data.kafka.retry.multiplier:2}",
+                    maxDelayExpression = "${spring.data.kafka.retry.max-delay-ms:60000}"),
+            numPartitions = "${spring.data.kafka.topics.partitions:6}",
+            replicationFactor = "${spring.data.kafka.topics.replicas:1}",
+            retryTopicSuffix = "-retry",
+            dltTopicSuffix = "-dlt",
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            dltStrategy = DltStrategy.FAIL_ON_ERROR,
+            kafkaTemplate = "kafkaTemplate")
     @KafkaListener(topics = "new-posts", groupId = "feed-service")
     public void handleNewPost(NewPostEvent event, Acknowledgment acknowledgment) {
         try {
@@ -41,11 +57,13 @@ public class KafkaPostConsumer {
                     .orElseThrow(() -> new EntityNotFoundException("Post not found: " + event.getPostId()));
             if (!post.canBeAddedToFeed()) {
                 log.info("Post {} cannot be added to feed, skipping", event.getPostId());
+                // снимаем устаревшую копию, если пост успел попасть в кеш до снятия верификации или удаления
+                postCacheStore.deleteById(post.getId());
+                postNearCache.invalidate(post.getId());
                 acknowledgment.acknowledge();
                 return;
             }
             cachePost(post);
-            processFeedUpdates(post);
             acknowledgment.acknowledge();
             log.info("Successfully processed new post event for post {}", event.getPostId());
         } catch (Exception e) {
@@ -54,43 +72,6 @@ public class KafkaPostConsumer {
         }
     }
 
-    private void processFeedUpdates(Post post) {
-        Set<Long> subscriberIds = subscriptionService.getSubscriberIds(post);
-        if (!subscriberIds.isEmpty()) {
-            List<Long> subscribersList = new ArrayList<>(subscriberIds);
-            for (int i = 0; i < subscribersList.size(); i += 1000) {
-                int end = Math.min(i + 1000, subscribersList.size());
-                FeedUpdateEvent batchEvent = FeedUpdateEvent.builder()
-                        .postId(post.getId())
-                        .authorId(post.getAuthorId())
-                        .subscriberIds(subscribersList.subList(i, end))
-                        .build();
-                try {
-                    processIndividualFeedUpdate(batchEvent);
-                } catch (Exception e) {
-                    log.error("Error processing feed update batch for post {}", post.getId(), e);
-                }
-            }
-        } else {
-            log.info("No subscribers found for post {}", post.getId());
-        }
-    }
-
-    private void processIndividualFeedUpdate(FeedUpdateEvent batchEvent) {
-        for (Long subscriberId : batchEvent.getSubscriberIds()) {
-            try {
-                userFeedZSetService.addPostToFeed(
-                        subscriberId,
-                        batchEvent.getPostId(),
-                        LocalDateTime.now()
-                );
-            } catch (Exception e) {
-                log.error("Failed to add post {} to feed of user {}",
-                        batchEvent.getPostId(), subscriberId, e);
-            }
-        }
-    }
-
     private void cachePost(Post post) {
         PostCache postCache = PostCache.builder()
                 .id(post.getId())
@@ -102,10 +83,21 @@ public class KafkaPostConsumer {
                 .lastComments(new LinkedHashSet<>())
                 .verified(post.isVerified())
                 .published(post.isPublished())
+                .deleted(post.isDeleted())
                 .visibility(post.getVisibility())
                 .build();
 
-        postCacheRepository.save(postCache);
+        postCacheStore.save(postCache);
+        postCounterCache.seed(postCache);
+        postNearCache.invalidate(post.getId());
         log.debug("Cached post {}", post.getId());
     }
-}
\ No newline at end of file
+
+    @DltHandler
+    public void handleNewPostDlt(NewPostEvent event, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+            Acknowledgment acknowledgment) {
+        log.error("New post event for post {} moved to {} after all retries", event.getPostId(), topic);
+        kafkaConsumerMetrics.recordDeadLetter(topic);
+        acknowledgment.acknowledge();
+    }
+}
@@ -5,7 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 @Data
 @Builder
@@ -15,5 +15,7 @@ public class FeedUpdateEvent {
     private Long postId;
     private Long authorId;
     private Long projectId;
-    private List<Long> subscriberIds;
+    private long[] subscriberIds;
+    private LocalDateTime publishedAt;
+    private boolean authorTimeline;
 }
\ No newline at end of file
@@ -7,12 +7,14 @@ import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class NewCommentEvent implements Serializable {
+    private UUID eventId;
     private Long id;
     private Long postId;
     private Long authorId;
@@ -20,6 +22,22 @@ public class NewCommentEvent implements Serializable {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private boolean verified;
+    // Одобрение комментария, уже учтённого в счётчике при создании: обновляет только последние комментарии поста
+    private boolean approval;
+
+    public static NewCommentEvent approvalOf(Long id, Long postId, Long authorId, String content,
+                                             LocalDateTime createdAt) {
+        return NewCommentEvent.builder()
+                .eventId(UUID.randomUUID())
+                .id(id)
+                .postId(postId)
+                .authorId(authorId)
+                .content(content)
+                .createdAt(createdAt)
+                .verified(true)
+                .approval(true)
+                .build();
+    }
 
     public boolean isVerified() {
         return verified &&
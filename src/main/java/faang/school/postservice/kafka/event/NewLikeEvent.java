@@ -8,12 +8,14 @@ import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class NewLikeEvent implements Serializable {
+    private UUID eventId;
     private Long postId;
     private Long userId;
     private LocalDateTime createdAt;
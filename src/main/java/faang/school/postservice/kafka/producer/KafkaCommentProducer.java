@@ -14,7 +14,7 @@ public class KafkaCommentProducer {
 
     public void sendCommentEvent(NewCommentEvent event) {
         try {
-            kafkaTemplate.send("new-comments", event);
+            kafkaTemplate.send("new-comments", String.valueOf(event.getPostId()), event);
             log.info("Sent comment event for post {}", event.getPostId());
         } catch (Exception e) {
             log.error("Error sending comment event for post {}", event.getPostId(), e);
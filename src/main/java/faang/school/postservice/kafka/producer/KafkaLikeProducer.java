@@ -14,7 +14,7 @@ public class KafkaLikeProducer {
 
     public void sendLikeEvent(NewLikeEvent event) {
         try {
-            kafkaTemplate.send("new-likes", event);
+            kafkaTemplate.send("new-likes", String.valueOf(event.getPostId()), event);
             log.info("Sent like event for post {}", event.getPostId());
         } catch (Exception e) {
             log.error("Error sending like event for post {}", event.getPostId(), e);
@@ -1,9 +1,10 @@
 package faang.school.postservice.kafka.producer;
 
-import com.google.common.collect.Lists;
-import faang.school.postservice.client.UserServiceClient;
+import faang.school.postservice.dto.user.SubscriberIdsPage;
 import faang.school.postservice.kafka.event.FeedUpdateEvent;
 import faang.school.postservice.kafka.event.NewPostEvent;
+import faang.school.postservice.service.feed.FeedFanOutPolicy;
+import faang.school.postservice.service.subscription.SubscriptionService;
 import jakarta.validation.constraints.NotNull;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -11,69 +12,107 @@ import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class KafkaPostProducer {
     private final KafkaTemplate<String, Object> kafkaTemplate;
-    private final UserServiceClient userServiceClient;
+    private final SubscriptionService subscriptionService;
+    private final FeedFanOutPolicy feedFanOutPolicy;
 
     @Value("${spring.data.cache.warmup.batch-size}")
     private int batchSize;;
 
+    /**
+     * Возвращает future, завершающийся после подтверждения брокером всех отправленных сообщений поста.
+     */
     @SneakyThrows
-    public void sendPostCreatedEvent(@NotNull NewPostEvent event) {
-        kafkaTemplate.send("new-posts", event);
-        List<Long> subscribers = getSubscribers(event);
+    public CompletableFuture<Void> sendPostCreatedEvent(@NotNull NewPostEvent event) {
+        List<CompletableFuture<?>> sends = new ArrayList<>();
+        sends.add(kafkaTemplate.send("new-posts", String.valueOf(event.getPostId()), event));
+        SubscriberIdsPage page = getSubscriberPage(event, null);
+        if (feedFanOutPolicy.isCelebrity(event.getAuthorId(), getTotal(page))) {
+            log.info("Author {} has {} subscribers, post {} is served from the author timeline",
+                    event.getAuthorId(), getTotal(page), event.getPostId());
+            sends.add(sendFeedUpdateEvent(toFeedUpdateEvent(event, new long[0], true)));
+            return CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new));
+        }
 
-        Lists.partition(subscribers, batchSize)
-                .forEach(batch -> sendFeedUpdateEvent(event, batch));
+        long subscribers = 0;
+        int batches = 0;
+        while (page != null) {
+            if (page.getIds() != null) {
+                for (long[] chunk : SubscriptionService.toChunks(page.getIds(), batchSize)) {
+                    sends.add(sendFeedUpdateEvent(toFeedUpdateEvent(event, chunk, false)));
+                    batches++;
+                }
+                subscribers += page.getIds().length;
+            }
+            page = page.getNextCursor() != null ? getSubscriberPage(event, page.getNextCursor()) : null;
+        }
 
         log.info("Sent feed update events for post {} with {} subscribers in {} batches",
-                event.getPostId(), subscribers.size(),
-                (subscribers.size() + batchSize - 1) / batchSize);
+                event.getPostId(), subscribers, batches);
+        return CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new));
     }
 
-    private void sendFeedUpdateEvent(NewPostEvent postEvent, List<Long> subscribers) {
-        try {
-            FeedUpdateEvent feedEvent = FeedUpdateEvent.builder()
-                    .postId(postEvent.getPostId())
-                    .authorId(postEvent.getAuthorId())
-                    .subscriberIds(subscribers)
-                    .build();
+    private FeedUpdateEvent toFeedUpdateEvent(NewPostEvent postEvent, long[] subscribers, boolean authorTimeline) {
+        return FeedUpdateEvent.builder()
+                .postId(postEvent.getPostId())
+                .authorId(postEvent.getAuthorId())
+                .projectId(postEvent.getProjectId())
+                .subscriberIds(subscribers)
+                .publishedAt(postEvent.getPublishedAt())
+                .authorTimeline(authorTimeline)
+                .build();
+    }
 
-            kafkaTemplate.send("feed-updates", feedEvent)
+    private CompletableFuture<SendResult<String, Object>> sendFeedUpdateEvent(FeedUpdateEvent feedEvent) {
+        try {
+            return kafkaTemplate.send("feed-updates", feedEvent)
                     .whenComplete((result, ex) -> {
                         if (ex != null) {
                             log.error("Failed to send feed update event for post {} batch",
-                                    postEvent.getPostId(), ex);
+                                    feedEvent.getPostId(), ex);
                         }
                     });
         } catch (Exception e) {
             log.error("Error sending feed update event for post {}",
-                    postEvent.getPostId(), e);
+                    feedEvent.getPostId(), e);
             throw e;
         }
     }
 
-    private List<Long> getSubscribers(NewPostEvent event) {
+    private SubscriberIdsPage getSubscriberPage(NewPostEvent event, Long after) {
         try {
             if (event.getAuthorId() != null) {
-                return userServiceClient.getUserSubscribersIds(event.getAuthorId());
+                return subscriptionService.getUserSubscriberPage(event.getAuthorId(), after, batchSize);
             } else if (event.getProjectId() != null) {
-                return userServiceClient.getProjectSubscriptions(event.getProjectId());
+                return subscriptionService.getProjectSubscriberPage(event.getProjectId(), after, batchSize);
             } else {
                 log.error("Post {} has neither author nor project", event.getPostId());
-                return Collections.emptyList();
+                return null;
             }
         } catch (Exception e) {
             log.error("Failed to get subscribers for post {}", event.getPostId(), e);
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    private long getTotal(SubscriberIdsPage page) {
+        if (page == null) {
+            return 0;
+        }
+        if (page.getTotal() != null) {
+            return page.getTotal();
+        }
+        return page.getIds() == null ? 0 : page.getIds().length;
+    }
+}
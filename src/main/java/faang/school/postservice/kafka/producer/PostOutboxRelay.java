@@ -0,0 +1,165 @@
+package faang.school.postservice.kafka.producer;
+
+import faang.school.postservice.kafka.event.NewPostEvent;
+import faang.school.postservice.model.PostOutboxEvent;
+import faang.school.postservice.model.PostOutboxStatus;
+import faang.school.postservice.repository.PostOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Переносит события публикации постов из post_outbox в Kafka.
+ * Строки захватываются короткой транзакцией, которая сдвигает next_attempt_at на время захвата; рассылка подписчикам
+ * и ожидание брокера идут уже вне транзакции, подтверждения всего пакета ждутся с одним общим дедлайном. Строка удаляется только после подтверждения брокера, неудачная
+ * откладывается с экспоненциальной задержкой и после max-attempts попыток переводится в DEAD, не блокируя остальные.
+ * Если инстанс упал, захват истекает и строку подберёт следующий проход.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostOutboxRelay {
+    private final PostOutboxRepository postOutboxRepository;
+    private final KafkaPostProducer kafkaPostProducer;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${spring.data.kafka.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${spring.data.kafka.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${spring.data.kafka.outbox.claim-timeout-ms:300000}")
+    private long claimTimeoutMs;
+
+    @Value("${spring.data.kafka.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${spring.data.kafka.outbox.retry-delay-ms:1000}")
+    private long retryDelayMs;
+
+    @Value("${spring.data.kafka.outbox.max-retry-delay-ms:300000}")
+    private long maxRetryDelayMs;
+
+    @Scheduled(fixedDelayString = "${spring.data.kafka.outbox.poll-interval-ms:500}",
+            scheduler = "outboxRelayScheduler")
+    public void relay() {
+        List<PostOutboxEvent> batch = transactionTemplate.execute(status -> claimNextBatch());
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+
+        // Весь пакет уходит в брокер сразу, подтверждения ждём вместе с одним общим дедлайном
+        List<CompletableFuture<Void>> sends = batch.stream()
+                .map(this::send)
+                .toList();
+        boolean interrupted = awaitAll(sends);
+
+        List<PostOutboxEvent> sent = new ArrayList<>(batch.size());
+        List<PostOutboxEvent> failed = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            PostOutboxEvent outboxEvent = batch.get(i);
+            CompletableFuture<Void> send = sends.get(i);
+            if (send.isDone() && !send.isCompletedExceptionally()) {
+                sent.add(outboxEvent);
+            } else if (send.isDone() || !interrupted) {
+                log.error("Failed to relay outbox event {} for post {}, attempt {}",
+                        outboxEvent.getId(), outboxEvent.getPostId(), outboxEvent.getAttempts() + 1, failure(send));
+                failed.add(outboxEvent);
+            }
+            // при прерывании неподтверждённые строки остаются захваченными и подберутся после истечения захвата
+        }
+
+        transactionTemplate.executeWithoutResult(status -> complete(sent, failed));
+        log.info("Relayed {} of {} outbox post events, {} rescheduled", sent.size(), batch.size(), failed.size());
+    }
+
+    private CompletableFuture<Void> send(PostOutboxEvent outboxEvent) {
+        try {
+            return kafkaPostProducer.sendPostCreatedEvent(toNewPostEvent(outboxEvent));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // true, если поток прервали; результат каждой отправки разбирается отдельно по её future
+    private boolean awaitAll(List<CompletableFuture<Void>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        } catch (ExecutionException | TimeoutException e) {
+            log.debug("Not every outbox event was confirmed within {} ms", sendTimeoutMs);
+        }
+        return false;
+    }
+
+    private Throwable failure(CompletableFuture<Void> send) {
+        if (!send.isDone()) {
+            return new TimeoutException("No broker acknowledgement within " + sendTimeoutMs + " ms");
+        }
+        return send.handle((result, e) -> e instanceof CompletionException && e.getCause() != null ? e.getCause() : e)
+                .join();
+    }
+
+    private List<PostOutboxEvent> claimNextBatch() {
+        List<PostOutboxEvent> batch = postOutboxRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return Collections.emptyList();
+        }
+        LocalDateTime claimedUntil = LocalDateTime.now().plus(Duration.ofMillis(claimTimeoutMs));
+        batch.forEach(outboxEvent -> outboxEvent.setNextAttemptAt(claimedUntil));
+        return postOutboxRepository.saveAll(batch);
+    }
+
+    private void complete(List<PostOutboxEvent> sent, List<PostOutboxEvent> failed) {
+        if (!sent.isEmpty()) {
+            postOutboxRepository.deleteAllInBatch(sent);
+        }
+        if (failed.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (PostOutboxEvent outboxEvent : failed) {
+            int attempts = outboxEvent.getAttempts() + 1;
+            outboxEvent.setAttempts(attempts);
+            if (attempts >= maxAttempts) {
+                outboxEvent.setStatus(PostOutboxStatus.DEAD);
+                log.error("Outbox event {} for post {} moved to DEAD after {} attempts",
+                        outboxEvent.getId(), outboxEvent.getPostId(), attempts);
+            } else {
+                outboxEvent.setNextAttemptAt(now.plus(Duration.ofMillis(retryDelay(attempts))));
+            }
+        }
+        postOutboxRepository.saveAll(failed);
+    }
+
+    private long retryDelay(int attempts) {
+        return Math.min(maxRetryDelayMs, retryDelayMs << Math.min(attempts - 1, 20));
+    }
+
+    private NewPostEvent toNewPostEvent(PostOutboxEvent outboxEvent) {
+        return NewPostEvent.builder()
+                .postId(outboxEvent.getPostId())
+                .authorId(outboxEvent.getAuthorId())
+                .projectId(outboxEvent.getProjectId())
+                .publishedAt(outboxEvent.getPublishedAt())
+                .build();
+    }
+}
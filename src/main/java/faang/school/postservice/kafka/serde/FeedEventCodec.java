@@ -0,0 +1,333 @@
+package faang.school.postservice.kafka.serde;
+
+import faang.school.postservice.kafka.event.FeedUpdateEvent;
+import faang.school.postservice.kafka.event.NewCommentEvent;
+import faang.school.postservice.kafka.event.NewLikeEvent;
+import faang.school.postservice.kafka.event.NewPostEvent;
+import faang.school.postservice.model.LikeType;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Компактный бинарный формат событий ленты.
+ * Первый байт - тег типа события (никогда не совпадает с '{', по нему отличаем старые JSON-сообщения),
+ * затем битовая маска заполненных полей и сами поля: числа - zigzag varint, строки - длина + UTF-8,
+ * даты - секунды и наносекунды UTC, UUID - 16 байт, списки id - длина + varint-дельты между соседними id.
+ */
+public final class FeedEventCodec {
+    static final byte NEW_POST = 1;
+    static final byte NEW_LIKE = 2;
+    static final byte NEW_COMMENT = 3;
+    static final byte FEED_UPDATE = 4;
+    private static final int COMMENT_VERIFIED = 1;
+    private static final int COMMENT_APPROVAL = 1 << 1;
+
+    private FeedEventCodec() {
+    }
+
+    public static boolean supports(Object event) {
+        return event instanceof NewPostEvent || event instanceof NewLikeEvent
+                || event instanceof NewCommentEvent || event instanceof FeedUpdateEvent;
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data.length > 0 && data[0] >= NEW_POST && data[0] <= FEED_UPDATE;
+    }
+
+    public static byte[] encode(Object event) {
+        Writer writer = new Writer();
+        if (event instanceof NewPostEvent post) {
+            writer.writeByte(NEW_POST);
+            writer.writeMask(post.getPostId(), post.getAuthorId(), post.getProjectId(), post.getContent(),
+                    post.getPublishedAt(), post.getFollowerIds());
+            writer.writeLong(post.getPostId());
+            writer.writeLong(post.getAuthorId());
+            writer.writeLong(post.getProjectId());
+            writer.writeString(post.getContent());
+            writer.writeDateTime(post.getPublishedAt());
+            writer.writeIds(post.getFollowerIds());
+        } else if (event instanceof NewLikeEvent like) {
+            writer.writeByte(NEW_LIKE);
+            writer.writeMask(like.getPostId(), like.getUserId(), like.getCreatedAt(), like.getType(),
+                    like.getEventId());
+            writer.writeLong(like.getPostId());
+            writer.writeLong(like.getUserId());
+            writer.writeDateTime(like.getCreatedAt());
+            if (like.getType() != null) {
+                writer.writeVarint(like.getType().ordinal());
+            }
+            writer.writeUuid(like.getEventId());
+        } else if (event instanceof NewCommentEvent comment) {
+            writer.writeByte(NEW_COMMENT);
+            writer.writeMask(comment.getId(), comment.getPostId(), comment.getAuthorId(), comment.getContent(),
+                    comment.getCreatedAt(), comment.getUpdatedAt(), comment.getEventId());
+            writer.writeLong(comment.getId());
+            writer.writeLong(comment.getPostId());
+            writer.writeLong(comment.getAuthorId());
+            writer.writeString(comment.getContent());
+            writer.writeDateTime(comment.getCreatedAt());
+            writer.writeDateTime(comment.getUpdatedAt());
+            writer.writeByte((byte) ((comment.isVerified() ? COMMENT_VERIFIED : 0)
+                    | (comment.isApproval() ? COMMENT_APPROVAL : 0)));
+            writer.writeUuid(comment.getEventId());
+        } else if (event instanceof FeedUpdateEvent update) {
+            writer.writeByte(FEED_UPDATE);
+            writer.writeMask(update.getPostId(), update.getAuthorId(), update.getProjectId(),
+                    update.getSubscriberIds(), update.getPublishedAt());
+            writer.writeLong(update.getPostId());
+            writer.writeLong(update.getAuthorId());
+            writer.writeLong(update.getProjectId());
+            writer.writeIdArray(update.getSubscriberIds());
+            writer.writeDateTime(update.getPublishedAt());
+            writer.writeByte((byte) (update.isAuthorTimeline() ? 1 : 0));
+        } else {
+            throw new IllegalArgumentException("Unsupported event type: " + event.getClass().getName());
+        }
+        return writer.toByteArray();
+    }
+
+    public static Object decode(byte[] data) {
+        Reader reader = new Reader(data);
+        byte type = reader.readByte();
+        return switch (type) {
+            case NEW_POST -> {
+                int mask = reader.readMask();
+                yield NewPostEvent.builder()
+                        .postId(isSet(mask, 0) ? reader.readLong() : null)
+                        .authorId(isSet(mask, 1) ? reader.readLong() : null)
+                        .projectId(isSet(mask, 2) ? reader.readLong() : null)
+                        .content(isSet(mask, 3) ? reader.readString() : null)
+                        .publishedAt(isSet(mask, 4) ? reader.readDateTime() : null)
+                        .followerIds(isSet(mask, 5) ? reader.readIds() : null)
+                        .build();
+            }
+            case NEW_LIKE -> {
+                int mask = reader.readMask();
+                yield NewLikeEvent.builder()
+                        .postId(isSet(mask, 0) ? reader.readLong() : null)
+                        .userId(isSet(mask, 1) ? reader.readLong() : null)
+                        .createdAt(isSet(mask, 2) ? reader.readDateTime() : null)
+                        .type(isSet(mask, 3) ? LikeType.values()[(int) reader.readVarint()] : null)
+                        .eventId(isSet(mask, 4) ? reader.readUuid() : null)
+                        .build();
+            }
+            case NEW_COMMENT -> {
+                int mask = reader.readMask();
+                NewCommentEvent.NewCommentEventBuilder comment = NewCommentEvent.builder()
+                        .id(isSet(mask, 0) ? reader.readLong() : null)
+                        .postId(isSet(mask, 1) ? reader.readLong() : null)
+                        .authorId(isSet(mask, 2) ? reader.readLong() : null)
+                        .content(isSet(mask, 3) ? reader.readString() : null)
+                        .createdAt(isSet(mask, 4) ? reader.readDateTime() : null)
+                        .updatedAt(isSet(mask, 5) ? reader.readDateTime() : null);
+                byte flags = reader.readByte();
+                yield comment
+                        .verified((flags & COMMENT_VERIFIED) != 0)
+                        .approval((flags & COMMENT_APPROVAL) != 0)
+                        .eventId(isSet(mask, 6) ? reader.readUuid() : null)
+                        .build();
+            }
+            case FEED_UPDATE -> {
+                int mask = reader.readMask();
+                yield FeedUpdateEvent.builder()
+                        .postId(isSet(mask, 0) ? reader.readLong() : null)
+                        .authorId(isSet(mask, 1) ? reader.readLong() : null)
+                        .projectId(isSet(mask, 2) ? reader.readLong() : null)
+                        .subscriberIds(isSet(mask, 3) ? reader.readIdArray() : null)
+                        .publishedAt(isSet(mask, 4) ? reader.readDateTime() : null)
+                        .authorTimeline(reader.readByte() == 1)
+                        .build();
+            }
+            default -> throw new IllegalArgumentException("Unknown binary event type: " + type);
+        };
+    }
+
+    private static boolean isSet(int mask, int field) {
+        return (mask & (1 << field)) != 0;
+    }
+
+    private static final class Writer {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+
+        void writeByte(byte value) {
+            out.write(value);
+        }
+
+        void writeMask(Object... fields) {
+            int mask = 0;
+            for (int i = 0; i < fields.length; i++) {
+                if (fields[i] != null) {
+                    mask |= 1 << i;
+                }
+            }
+            writeVarint(mask);
+        }
+
+        void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+
+        void writeLong(Long value) {
+            if (value != null) {
+                writeVarint((value << 1) ^ (value >> 63));
+            }
+        }
+
+        void writeString(String value) {
+            if (value != null) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarint(bytes.length);
+                out.write(bytes, 0, bytes.length);
+            }
+        }
+
+        void writeDateTime(LocalDateTime value) {
+            if (value != null) {
+                writeLong(value.toEpochSecond(ZoneOffset.UTC));
+                writeVarint(value.getNano());
+            }
+        }
+
+        void writeUuid(UUID value) {
+            if (value != null) {
+                writeFixedLong(value.getMostSignificantBits());
+                writeFixedLong(value.getLeastSignificantBits());
+            }
+        }
+
+        private void writeFixedLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                out.write((int) (value >>> shift));
+            }
+        }
+
+        void writeIds(List<Long> ids) {
+            if (ids != null) {
+                writeVarint(ids.size());
+                long previous = 0;
+                for (Long id : ids) {
+                    writeLong(id - previous);
+                    previous = id;
+                }
+            }
+        }
+
+        void writeIdArray(long[] ids) {
+            if (ids != null) {
+                writeVarint(ids.length);
+                long previous = 0;
+                for (long id : ids) {
+                    writeLong(id - previous);
+                    previous = id;
+                }
+            }
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        byte readByte() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("Truncated binary event");
+            }
+            return data[position++];
+        }
+
+        int readMask() {
+            return (int) readVarint();
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte current = readByte();
+                value |= (long) (current & 0x7F) << shift;
+                if ((current & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in binary event");
+        }
+
+        long readLong() {
+            long raw = readVarint();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        String readString() {
+            int length = (int) readVarint();
+            if (length < 0 || position + length > data.length) {
+                throw new IllegalArgumentException("Truncated binary event");
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        LocalDateTime readDateTime() {
+            long seconds = readLong();
+            int nanos = (int) readVarint();
+            return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+        }
+
+        UUID readUuid() {
+            return new UUID(readFixedLong(), readFixedLong());
+        }
+
+        private long readFixedLong() {
+            long value = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                value = (value << 8) | (readByte() & 0xFF);
+            }
+            return value;
+        }
+
+        List<Long> readIds() {
+            int size = (int) readVarint();
+            if (size < 0 || size > data.length - position) {
+                throw new IllegalArgumentException("Truncated binary event");
+            }
+            List<Long> ids = new ArrayList<>(size);
+            long previous = 0;
+            for (int i = 0; i < size; i++) {
+                previous += readLong();
+                ids.add(previous);
+            }
+            return ids;
+        }
+
+        long[] readIdArray() {
+            int size = (int) readVarint();
+            if (size < 0 || size > data.length - position) {
+                throw new IllegalArgumentException("Truncated binary event");
+            }
+            long[] ids = new long[size];
+            long previous = 0;
+            for (int i = 0; i < size; i++) {
+                previous += readLong();
+                ids[i] = previous;
+            }
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package faang.school.postservice.kafka.serde;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+/**
+ * Читает бинарные события ленты, а сообщения в старом JSON-формате передает JsonDeserializer,
+ * чтобы уже лежащие в топиках события дочитывались после переключения формата.
+ */
+public class FeedEventDeserializer implements Deserializer<Object> {
+    private final JsonDeserializer<Object> jsonDeserializer;
+
+    public FeedEventDeserializer() {
+        jsonDeserializer = new JsonDeserializer<>();
+        jsonDeserializer.addTrustedPackages("*");
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (FeedEventCodec.isBinary(data)) {
+            return FeedEventCodec.decode(data);
+        }
+        return headers == null ? jsonDeserializer.deserialize(topic, data) : jsonDeserializer.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
@@ -0,0 +1,47 @@
+package faang.school.postservice.kafka.serde;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+/**
+ * Сериализатор значений событий ленты. binaryEvents выбирает только формат самих событий:
+ * исходные байты, которые пересылает DeadLetterPublishingRecoverer, уходят в DLT без изменений в обоих режимах.
+ */
+public class FeedEventSerializer implements Serializer<Object> {
+    private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+    private final boolean binaryEvents;
+
+    public FeedEventSerializer() {
+        this(true);
+    }
+
+    public FeedEventSerializer(boolean binaryEvents) {
+        this.binaryEvents = binaryEvents;
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return serialize(topic, null, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data == null) {
+            return null;
+        }
+        // DeadLetterPublishingRecoverer пересылает недесериализуемые записи как исходные байты
+        if (data instanceof byte[] raw) {
+            return raw;
+        }
+        if (binaryEvents && FeedEventCodec.supports(data)) {
+            return FeedEventCodec.encode(data);
+        }
+        return headers == null ? jsonSerializer.serialize(topic, data) : jsonSerializer.serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+}
@@ -53,6 +53,9 @@ public class Comment {
     @Column(name = "verified_at")
     private LocalDateTime verifiedAt;
 
+    @Column(name = "dictionary_version")
+    private Long dictionaryVersion;
+
     public boolean isVerified() {
         return verified &&
                 content != null &&
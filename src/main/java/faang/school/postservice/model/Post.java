@@ -128,6 +128,6 @@ public class Post {
     }
 
     public boolean canBeAddedToFeed() {
-        return verified;
+        return verified && published && !deleted;
     }
 }
\ No newline at end of file
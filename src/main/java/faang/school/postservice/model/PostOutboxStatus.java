@@ -0,0 +1,6 @@
+package faang.school.postservice.model;
+
+public enum PostOutboxStatus {
+    PENDING,
+    DEAD
+}
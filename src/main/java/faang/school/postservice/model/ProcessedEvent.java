@@ -0,0 +1,32 @@
+package faang.school.postservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "processed_event")
+public class ProcessedEvent {
+
+    @Id
+    @Column(name = "event_id")
+    private UUID eventId;
+
+    @Column(name = "consumer", nullable = false, length = 32)
+    private String consumer;
+
+    @Column(name = "processed_at", nullable = false, insertable = false, updatable = false)
+    private OffsetDateTime processedAt;
+}
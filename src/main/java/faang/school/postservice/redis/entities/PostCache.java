@@ -34,10 +34,15 @@ public class PostCache implements Serializable {
     private LocalDateTime publishedAt;
     private boolean verified;
     private boolean published;
+    private boolean deleted;
     private PostVisibility visibility;
     @Builder.Default
     private LinkedHashSet<CommentCache> lastComments = new LinkedHashSet<>();
 
     @TimeToLive(unit = TimeUnit.HOURS)
     final private Long ttl = 24L;
+
+    public boolean canBeAddedToFeed() {
+        return verified && published && !deleted;
+    }
 }
\ No newline at end of file
@@ -1,11 +1,15 @@
 package faang.school.postservice.repository;
 
+import faang.school.postservice.dto.comment.CommentModerationView;
 import faang.school.postservice.model.Comment;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,8 +18,23 @@ public interface CommentRepository extends CrudRepository<Comment, Long> {
     @Query("SELECT c FROM Comment c WHERE c.post.id = :postId")
     List<Comment> findAllByPostId(long postId);
 
-    @Query("SELECT c FROM Comment c WHERE c.verified is null ")
-    List<Comment> findAllUnCheckedComments();
+    @Query(nativeQuery = true, value = """
+            SELECT c.id AS "id", c.content AS "content", c.post_id AS "postId", c.author_id AS "authorId",
+                   CAST(c.created_at AS timestamp) AS "createdAt"
+            FROM comment c
+            WHERE c.verified IS NULL AND c.id > :afterId
+            ORDER BY c.id
+            LIMIT :limit
+            """)
+    List<CommentModerationView> findUncheckedPage(long afterId, int limit);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE comment
+            SET verified = :verified, verified_at = :verifiedAt, dictionary_version = :dictionaryVersion
+            WHERE id IN (:ids) AND verified IS NULL
+            """)
+    int updateVerdicts(Collection<Long> ids, boolean verified, LocalDateTime verifiedAt, long dictionaryVersion);
 
     @Query("SELECT c FROM Comment c WHERE c.post.id = :postId AND c.verified = true " +
             "ORDER BY c.createdAt DESC")
@@ -2,9 +2,13 @@ package faang.school.postservice.repository;
 
 import faang.school.postservice.model.Like;
 import lombok.NonNull;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +17,15 @@ public interface LikeRepository extends CrudRepository<Like, Long> {
 
     void deleteByPostIdAndUserId(long postId, long userId);
 
+    // Удалённый лайк не оставляет строки в likes, поэтому сверка счётчиков видит недавние анлайки по этой отметке
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO like_deletion (post_id) VALUES (:postId)")
+    void recordPostLikeDeletion(@Param("postId") long postId);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM like_deletion WHERE deleted_at < :settledBefore")
+    int deleteLikeDeletionsBefore(@Param("settledBefore") OffsetDateTime settledBefore);
+
     void deleteByCommentIdAndUserId(long commentId, long userId);
 
     List<Like> findByPostId(long postId);
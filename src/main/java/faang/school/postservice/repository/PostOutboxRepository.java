@@ -0,0 +1,23 @@
+package faang.school.postservice.repository;
+
+import faang.school.postservice.model.PostOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PostOutboxRepository extends JpaRepository<PostOutboxEvent, Long> {
+
+    // Отложенные после ошибки и захваченные другим проходом строки не мешают выбирать следующие
+    @Query(nativeQuery = true, value = """
+            SELECT * FROM post_outbox
+            WHERE status = 'PENDING' AND next_attempt_at <= now()
+            ORDER BY next_attempt_at, id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """)
+    List<PostOutboxEvent> lockNextBatch(@Param("limit") int limit);
+}
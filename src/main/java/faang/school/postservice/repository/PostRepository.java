@@ -1,14 +1,16 @@
 package faang.school.postservice.repository;
 
+import faang.school.postservice.dto.post.PostCounterDrift;
 import faang.school.postservice.model.Post;
 import feign.Param;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -55,22 +57,97 @@ public interface PostRepository extends CrudRepository<Post, Long> {
             "WHERE p.verified = false")
     List<Post> findByNotVerified();
 
-    @Query(value = "SELECT * FROM post WHERE author_id = :userId ORDER BY created_at DESC",
-            nativeQuery = true)
-    List<Post> findLatestPostsForUser(@Param("userId") Long userId, Pageable pageable);
+    // Один ограниченный индексный проход по (author_id, published_at) на каждого автора; список не должен быть пустым
+    @Query(nativeQuery = true, value = """
+            SELECT l.* FROM unnest(ARRAY[:authorIds]) AS a(author_id)
+            CROSS JOIN LATERAL (
+                SELECT p.* FROM post p
+                WHERE p.author_id = a.author_id
+                  AND p.published = true AND p.deleted = false AND p.verified = true
+                ORDER BY p.published_at DESC, p.id DESC
+                LIMIT :limit
+            ) l
+            ORDER BY l.published_at DESC, l.id DESC
+            LIMIT :limit
+            """)
+    List<Post> findLatestFeedPostsByAuthors(@Param("authorIds") Collection<Long> authorIds,
+                                            @Param("limit") int limit);
+
+    // То же по (project_id, published_at); список не должен быть пустым
+    @Query(nativeQuery = true, value = """
+            SELECT l.* FROM unnest(ARRAY[:projectIds]) AS pr(project_id)
+            CROSS JOIN LATERAL (
+                SELECT p.* FROM post p
+                WHERE p.project_id = pr.project_id
+                  AND p.published = true AND p.deleted = false AND p.verified = true
+                ORDER BY p.published_at DESC, p.id DESC
+                LIMIT :limit
+            ) l
+            ORDER BY l.published_at DESC, l.id DESC
+            LIMIT :limit
+            """)
+    List<Post> findLatestFeedPostsByProjects(@Param("projectIds") Collection<Long> projectIds,
+                                             @Param("limit") int limit);
 
     @Modifying
-    @Query("UPDATE Post p SET p.likesCount = COALESCE(p.likesCount, 0) + 1 WHERE p.id = :postId")
-    void incrementLikesCount(@Param("postId") Long postId);
-
-    @Modifying
-    @Query("UPDATE Post p SET p.likesCount = p.likesCount - 1 WHERE p.id = :postId")
-    void decrementLikesCount(@Param("postId") Long postId);
+    @Query("UPDATE Post p SET p.likesCount = COALESCE(p.likesCount, 0) + :delta WHERE p.id = :postId")
+    void addLikesCount(@Param("postId") Long postId, @Param("delta") long delta);
 
     @Modifying
     @Query("UPDATE Post p SET p.commentsCount = COALESCE(p.commentsCount, 0) + 1 WHERE p.id = :postId")
     void incrementCommentsCount(@Param("postId") Long postId);
 
+    @Query("SELECT COALESCE(MAX(p.id), 0) FROM Post p")
+    long findMaxId();
+
+    // Посты с лайками, анлайками или комментариями новее settledBefore пропускаются: их события еще могут быть в Kafka
+    @Query(nativeQuery = true, value = """
+            SELECT p.id AS "postId",
+                   COALESCE(p.likes_count, 0) AS "storedLikes",
+                   COALESCE(l.cnt, 0) AS "actualLikes",
+                   COALESCE(p.comments_count, 0) AS "storedComments",
+                   COALESCE(c.cnt, 0) AS "actualComments"
+            FROM post p
+            LEFT JOIN (SELECT post_id, COUNT(*) AS cnt, MAX(created_at) AS last_at
+                       FROM likes
+                       WHERE post_id >= :fromId AND post_id < :toId
+                       GROUP BY post_id) l ON l.post_id = p.id
+            LEFT JOIN (SELECT post_id, COUNT(*) AS cnt, MAX(created_at) AS last_at
+                       FROM comment
+                       WHERE post_id >= :fromId AND post_id < :toId
+                       GROUP BY post_id) c ON c.post_id = p.id
+            WHERE p.id >= :fromId AND p.id < :toId
+              AND (l.last_at IS NULL OR l.last_at < :settledBefore)
+              AND (c.last_at IS NULL OR c.last_at < :settledBefore)
+              AND NOT EXISTS (SELECT 1 FROM like_deletion d
+                              WHERE d.post_id = p.id AND d.deleted_at >= :settledBefore)
+              AND (COALESCE(p.likes_count, 0) <> COALESCE(l.cnt, 0)
+                   OR COALESCE(p.comments_count, 0) <> COALESCE(c.cnt, 0))
+            """)
+    List<PostCounterDrift> findCounterDrift(@Param("fromId") long fromId,
+                                            @Param("toId") long toId,
+                                            @Param("settledBefore") OffsetDateTime settledBefore);
+
+    // Поправка прибавляется к текущему значению под тем же условием, что и в findCounterDrift:
+    // если после чтения дрейфа появился лайк, анлайк или комментарий, пост пропускается до следующего прохода
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE post p
+            SET likes_count = COALESCE(p.likes_count, 0) + :likesDelta,
+                comments_count = COALESCE(p.comments_count, 0) + :commentsDelta
+            WHERE p.id = :postId
+              AND NOT EXISTS (SELECT 1 FROM likes l
+                              WHERE l.post_id = p.id AND l.created_at >= :settledBefore)
+              AND NOT EXISTS (SELECT 1 FROM like_deletion d
+                              WHERE d.post_id = p.id AND d.deleted_at >= :settledBefore)
+              AND NOT EXISTS (SELECT 1 FROM comment c
+                              WHERE c.post_id = p.id AND c.created_at >= :settledBefore)
+            """)
+    int applyCounterCorrection(@Param("postId") long postId,
+                               @Param("likesDelta") long likesDelta,
+                               @Param("commentsDelta") long commentsDelta,
+                               @Param("settledBefore") OffsetDateTime settledBefore);
+
     List<Post> findByAuthorIdIsNotNullAndCreatedAtAfterAndPublishedTrue(LocalDateTime cutoffDate);
 
     List<Post> findByProjectIdIsNotNullAndCreatedAtAfterAndPublishedTrue(LocalDateTime cutoffDate);
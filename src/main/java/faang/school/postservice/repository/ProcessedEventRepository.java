@@ -0,0 +1,30 @@
+package faang.school.postservice.repository;
+
+import faang.school.postservice.model.ProcessedEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, UUID> {
+
+    // Возвращает только id, вставленные этим запросом; конкурентная вставка того же id ждёт коммита или отката первой
+    @Query(nativeQuery = true, value = """
+            INSERT INTO processed_event (event_id, consumer)
+            SELECT event_id, :consumer FROM unnest(ARRAY[:eventIds]) AS event_id
+            ON CONFLICT DO NOTHING
+            RETURNING event_id
+            """)
+    List<UUID> insertNew(@Param("consumer") String consumer, @Param("eventIds") Collection<UUID> eventIds);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM processed_event WHERE processed_at < :processedBefore")
+    int deleteProcessedBefore(@Param("processedBefore") OffsetDateTime processedBefore);
+}
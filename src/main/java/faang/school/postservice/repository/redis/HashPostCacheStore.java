@@ -0,0 +1,46 @@
+package faang.school.postservice.repository.redis;
+
+import faang.school.postservice.redis.entities.PostCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.data.cache.post.storage", havingValue = "hash", matchIfMissing = true)
+public class HashPostCacheStore implements PostCacheStore {
+    private final PostCacheRepository postCacheRepository;
+
+    @Override
+    public Optional<PostCache> findById(Long id) {
+        return postCacheRepository.findById(id);
+    }
+
+    @Override
+    public Map<Long, PostCache> findAllById(Collection<Long> ids) {
+        return postCacheRepository.findAllByIdPipelined(ids);
+    }
+
+    @Override
+    public PostCache save(PostCache post) {
+        return postCacheRepository.save(post);
+    }
+
+    @Override
+    public List<PostCache> saveAll(Collection<PostCache> posts) {
+        List<PostCache> saved = new ArrayList<>(posts.size());
+        postCacheRepository.saveAll(posts).forEach(saved::add);
+        return saved;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        postCacheRepository.deleteById(id);
+    }
+}
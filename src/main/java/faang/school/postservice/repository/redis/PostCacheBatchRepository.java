@@ -0,0 +1,11 @@
+package faang.school.postservice.repository.redis;
+
+import faang.school.postservice.redis.entities.PostCache;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface PostCacheBatchRepository {
+
+    Map<Long, PostCache> findAllByIdPipelined(Collection<Long> ids);
+}
@@ -0,0 +1,58 @@
+package faang.school.postservice.repository.redis;
+
+import faang.school.postservice.redis.entities.PostCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.convert.Bucket;
+import org.springframework.data.redis.core.convert.RedisConverter;
+import org.springframework.data.redis.core.convert.RedisData;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class PostCacheBatchRepositoryImpl implements PostCacheBatchRepository {
+    private static final String KEYSPACE = "posts";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisConverter redisConverter;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<Long, PostCache> findAllByIdPipelined(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Long> orderedIds = new ArrayList<>(ids);
+        List<Object> hashes = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            orderedIds.forEach(id -> connection.hashCommands().hGetAll(toKey(id)));
+            return null;
+        });
+
+        Map<Long, PostCache> posts = new HashMap<>();
+        for (int i = 0; i < orderedIds.size(); i++) {
+            Map<String, String> hash = (Map<String, String>) hashes.get(i);
+            if (hash != null && !hash.isEmpty()) {
+                posts.put(orderedIds.get(i), read(orderedIds.get(i), hash));
+            }
+        }
+        return posts;
+    }
+
+    private PostCache read(Long id, Map<String, String> hash) {
+        RedisData data = new RedisData(Bucket.newBucketFromStringMap(hash));
+        data.setId(String.valueOf(id));
+        data.setKeyspace(KEYSPACE);
+        return redisConverter.read(PostCache.class, data);
+    }
+
+    private byte[] toKey(Long id) {
+        return (KEYSPACE + ":" + id).getBytes(StandardCharsets.UTF_8);
+    }
+}
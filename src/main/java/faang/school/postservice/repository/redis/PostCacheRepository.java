@@ -5,5 +5,5 @@ import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface PostCacheRepository extends CrudRepository<PostCache, Long> {
-}
\ No newline at end of file
+public interface PostCacheRepository extends CrudRepository<PostCache, Long>, PostCacheBatchRepository {
+}
@@ -0,0 +1,21 @@
+package faang.school.postservice.repository.redis;
+
+import faang.school.postservice.redis.entities.PostCache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface PostCacheStore {
+
+    Optional<PostCache> findById(Long id);
+
+    Map<Long, PostCache> findAllById(Collection<Long> ids);
+
+    PostCache save(PostCache post);
+
+    List<PostCache> saveAll(Collection<PostCache> posts);
+
+    void deleteById(Long id);
+}
@@ -0,0 +1,133 @@
+package faang.school.postservice.repository.redis;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import faang.school.postservice.redis.entities.PostCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.data.cache.post.storage", havingValue = "smile")
+public class SmilePostCacheStore implements PostCacheStore {
+    private static final String KEY_PREFIX = "post-smile:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper smileMapper;
+
+    public SmilePostCacheStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.smileMapper = createSmileMapper();
+    }
+
+    public static ObjectMapper createSmileMapper() {
+        return new ObjectMapper(new SmileFactory())
+                .registerModule(new JavaTimeModule())
+                .addMixIn(PostCache.class, PostCacheMixIn.class)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    @Override
+    public Optional<PostCache> findById(Long id) {
+        byte[] value = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.stringCommands().get(toKey(id)));
+        return Optional.ofNullable(value).map(this::read);
+    }
+
+    @Override
+    public Map<Long, PostCache> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Long> orderedIds = new ArrayList<>(ids);
+        byte[][] keys = orderedIds.stream().map(this::toKey).toArray(byte[][]::new);
+        List<byte[]> values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.stringCommands().mGet(keys));
+
+        Map<Long, PostCache> posts = new HashMap<>();
+        if (values == null) {
+            return posts;
+        }
+        for (int i = 0; i < orderedIds.size(); i++) {
+            if (values.get(i) != null) {
+                posts.put(orderedIds.get(i), read(values.get(i)));
+            }
+        }
+        return posts;
+    }
+
+    @Override
+    public PostCache save(PostCache post) {
+        byte[] value = write(post);
+        redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.stringCommands()
+                .set(toKey(post.getId()), value, expirationOf(post), SetOption.upsert()));
+        return post;
+    }
+
+    @Override
+    public List<PostCache> saveAll(Collection<PostCache> posts) {
+        if (posts.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<PostCache> saved = new ArrayList<>(posts);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            saved.forEach(post -> connection.stringCommands()
+                    .set(toKey(post.getId()), write(post), expirationOf(post), SetOption.upsert()));
+            return null;
+        });
+        return saved;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        redisTemplate.execute((RedisCallback<Long>) connection -> connection.keyCommands().del(toKey(id)));
+    }
+
+    private byte[] write(PostCache post) {
+        try {
+            return smileMapper.writeValueAsBytes(post);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize post " + post.getId(), e);
+        }
+    }
+
+    private PostCache read(byte[] value) {
+        try {
+            return smileMapper.readValue(value, PostCache.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to deserialize cached post", e);
+        }
+    }
+
+    private Expiration expirationOf(PostCache post) {
+        return Expiration.from(post.getTtl(), TimeUnit.HOURS);
+    }
+
+    private byte[] toKey(Long id) {
+        return (KEY_PREFIX + id).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @JsonIgnoreProperties({"ttl"})
+    private abstract static class PostCacheMixIn {
+    }
+}
@@ -0,0 +1,74 @@
+package faang.school.postservice.scheduler.counter;
+
+import faang.school.postservice.dto.post.PostCounterDrift;
+import faang.school.postservice.service.post.PostCounterReconciliationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Сверяет счётчики лайков и комментариев постов с таблицами likes и comment.
+ * За один запуск обрабатывается один диапазон id, поэтому нагрузка на базу ограничена
+ * интервалом и размером чанка. Позиция хранится в Redis и переживает рестарты.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class PostCounterReconciliationScheduler {
+    static final String CHECKPOINT_KEY = "post-counters:reconcile:checkpoint";
+    static final String LOCK_KEY = "post-counters:reconcile:lock";
+    static final RedisScript<Long> LOCK_RELEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/lock-release.lua"), Long.class);
+
+    private final PostCounterReconciliationService reconciliationService;
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${spring.scheduler.counter-reconciliation.chunk-size:2000}")
+    private long chunkSize;
+
+    @Value("${spring.scheduler.counter-reconciliation.settle-seconds:300}")
+    private long settleSeconds;
+
+    @Value("${spring.scheduler.counter-reconciliation.lock-ttl-seconds:60}")
+    private long lockTtlSeconds;
+
+    @Scheduled(fixedDelayString = "${spring.scheduler.counter-reconciliation.interval-ms:5000}")
+    public void reconcileNextChunk() {
+        String lockToken = UUID.randomUUID().toString();
+        Boolean locked = redisTemplate.opsForValue()
+                .setIfAbsent(LOCK_KEY, lockToken, Duration.ofSeconds(lockTtlSeconds));
+        if (!Boolean.TRUE.equals(locked)) {
+            return;
+        }
+        try {
+            long fromId = readCheckpoint();
+            if (fromId > reconciliationService.getMaxPostId()) {
+                fromId = 0;
+            }
+            long toId = fromId + chunkSize;
+            List<PostCounterDrift> drifts = reconciliationService.reconcileRange(
+                    fromId, toId, OffsetDateTime.now().minusSeconds(settleSeconds));
+            reconciliationService.refreshCachedCounters(drifts);
+            redisTemplate.opsForValue().set(CHECKPOINT_KEY, String.valueOf(toId));
+        } catch (Exception e) {
+            log.error("Failed to reconcile post counters", e);
+        } finally {
+            redisTemplate.execute(LOCK_RELEASE_SCRIPT, List.of(LOCK_KEY), lockToken);
+        }
+    }
+
+    private long readCheckpoint() {
+        String checkpoint = redisTemplate.opsForValue().get(CHECKPOINT_KEY);
+        return checkpoint == null ? 0 : Long.parseLong(checkpoint);
+    }
+}
@@ -3,6 +3,7 @@ package faang.school.postservice.service.cash;
 import com.google.common.collect.Lists;
 import faang.school.postservice.client.UserServiceClient;
 import faang.school.postservice.config.context.UserContext;
+import faang.school.postservice.dto.user.SubscriberIdsPage;
 import faang.school.postservice.dto.user.UserDto;
 import faang.school.postservice.mapper.post.PostMapper;
 import faang.school.postservice.model.Comment;
@@ -11,8 +12,9 @@ import faang.school.postservice.redis.entities.CommentCache;
 import faang.school.postservice.redis.entities.PostCache;
 import faang.school.postservice.redis.entities.UserCache;
 import faang.school.postservice.repository.PostRepository;
-import faang.school.postservice.repository.redis.PostCacheRepository;
+import faang.school.postservice.repository.redis.PostCacheStore;
 import faang.school.postservice.repository.redis.UserCacheRepository;
+import faang.school.postservice.service.feed.FeedFanOutPolicy;
 import faang.school.postservice.service.feed.UserFeedZSetService;
 import faang.school.postservice.service.subscription.SubscriptionService;
 import lombok.extern.slf4j.Slf4j;
@@ -34,9 +36,11 @@ import java.util.stream.Collectors;
 public class CacheWarmerService {
     private final PostRepository postRepository;
     private final UserServiceClient userServiceClient;
-    private final PostCacheRepository postCacheRepository;
+    private final PostCacheStore postCacheStore;
+    private final PostCounterCache postCounterCache;
     private final UserCacheRepository userCacheRepository;
     private final UserFeedZSetService userFeedZSetService;
+    private final FeedFanOutPolicy feedFanOutPolicy;
     private final UserContext userContext;
     private final SubscriptionService subscriptionService;
     private final CommentCacheService commentCacheService;
@@ -49,9 +53,11 @@ public class CacheWarmerService {
     public CacheWarmerService(
             PostRepository postRepository,
             UserServiceClient userServiceClient,
-            PostCacheRepository postCacheRepository,
+            PostCacheStore postCacheStore,
+            PostCounterCache postCounterCache,
             UserCacheRepository userCacheRepository,
             UserFeedZSetService userFeedZSetService,
+            FeedFanOutPolicy feedFanOutPolicy,
             UserContext userContext,
             SubscriptionService subscriptionService,
             CommentCacheService commentCacheService,
@@ -60,9 +66,11 @@ public class CacheWarmerService {
             @Qualifier("cacheWarmerExecutor") ExecutorService executor) {
         this.postRepository = postRepository;
         this.userServiceClient = userServiceClient;
-        this.postCacheRepository = postCacheRepository;
+        this.postCacheStore = postCacheStore;
+        this.postCounterCache = postCounterCache;
         this.userCacheRepository = userCacheRepository;
         this.userFeedZSetService = userFeedZSetService;
+        this.feedFanOutPolicy = feedFanOutPolicy;
         this.userContext = userContext;
         this.subscriptionService = subscriptionService;
         this.commentCacheService = commentCacheService;
@@ -175,7 +183,8 @@ public class CacheWarmerService {
                             try {
                                 PostCache postCache = postMapper.toPostCache(post);
                                 postCache.setLastComments(commentCacheService.fetchLatestComments(post.getId()));
-                                postCacheRepository.save(postCache);
+                                postCacheStore.save(postCache);
+                                postCounterCache.seed(postCache);
                                 totalProcessed.incrementAndGet();
                             } catch (Exception e) {
                                 log.error("Error caching post {} for user {}", post.getId(), userId, e);
@@ -224,10 +233,21 @@ public class CacheWarmerService {
                     continue;
                 }
 
-                List<Long> subscriberIds = userServiceClient.getUserSubscribersIds(authorId);
-                log.info("Found {} subscribers for author {}", subscriberIds.size(), authorId);
+                // первая страница нужна и для подсчёта, и для раздачи: без постраничных эндпоинтов
+                // это весь список подписчиков, второй раз он не скачивается
+                SubscriberIdsPage firstPage = subscriptionService.getUserSubscriberPage(authorId, null, batchSize);
+                if (feedFanOutPolicy.isCelebrity(authorId, SubscriptionService.countSubscribers(firstPage))) {
+                    validPosts.forEach(post ->
+                            userFeedZSetService.addPostToTimeline(authorId, post.getId(), post.getPublishedAt()));
+                    log.info("Author {} is a celebrity, warmed up timeline with {} posts", authorId, validPosts.size());
+                    continue;
+                }
 
-                updateSubscriberFeeds(subscriberIds, validPosts, totalProcessed, "author", authorId);
+                long subscribers = subscriptionService.forEachUserSubscriberChunk(authorId, firstPage, batchSize,
+                        chunk -> updateSubscriberFeeds(chunk, validPosts, totalProcessed, "author", authorId));
+                log.info("Found {} subscribers for author {}", subscribers, authorId);
+                // посты уже разложены по лентам, так что бывшую знаменитость можно убрать из celebrities
+                userFeedZSetService.removeCelebrity(authorId);
             } catch (Exception e) {
                 log.error("Failed to process author {} feeds", authorId, e);
             }
@@ -250,10 +270,9 @@ public class CacheWarmerService {
                     continue;
                 }
 
-                List<Long> subscriberIds = userServiceClient.getProjectSubscriptions(projectId);
-                log.info("Found {} subscribers for project {}", subscriberIds.size(), projectId);
-
-                updateSubscriberFeeds(subscriberIds, validPosts, totalProcessed, "project", projectId);
+                long subscribers = subscriptionService.forEachProjectSubscriberChunk(projectId, batchSize,
+                        chunk -> updateSubscriberFeeds(chunk, validPosts, totalProcessed, "project", projectId));
+                log.info("Found {} subscribers for project {}", subscribers, projectId);
             } catch (Exception e) {
                 log.error("Failed to process project {} feeds", projectId, e);
             }
@@ -261,31 +280,23 @@ public class CacheWarmerService {
     }
 
     private void updateSubscriberFeeds(
-            List<Long> subscriberIds,
+            long[] subscriberIds,
             List<Post> posts,
             AtomicInteger totalProcessed,
             String sourceType,
             Long sourceId) {
 
-        for (List<Long> batch : Lists.partition(subscriberIds, batchSize)) {
-            for (Long subscriberId : batch) {
-                try {
-                    for (Post post : posts) {
-                        userFeedZSetService.addPostToFeed(
-                                subscriberId,
-                                post.getId(),
-                                post.getCreatedAt()
-                        );
-                    }
-                    totalProcessed.incrementAndGet();
-                } catch (Exception e) {
-                    log.error("Failed to update feed for subscriber {} of {} {}",
-                            subscriberId, sourceType, sourceId, e);
-                }
+        for (Post post : posts) {
+            try {
+                userFeedZSetService.addPostToFeeds(subscriberIds, post.getId(), post.getPublishedAt());
+            } catch (Exception e) {
+                log.error("Failed to add post {} to feeds of {} subscribers of {} {}",
+                        post.getId(), subscriberIds.length, sourceType, sourceId, e);
             }
-            log.info("Processed batch of {} subscribers for {} {}, total processed: {}",
-                    batch.size(), sourceType, sourceId, totalProcessed.get());
         }
+        totalProcessed.addAndGet(subscriberIds.length);
+        log.info("Processed batch of {} subscribers for {} {}, total processed: {}",
+                subscriberIds.length, sourceType, sourceId, totalProcessed.get());
     }
 
     private UserCache createUserCache(UserDto user) {
@@ -0,0 +1,98 @@
+package faang.school.postservice.service.cash;
+
+import faang.school.postservice.redis.entities.PostCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostCounterCache {
+    private static final RedisScript<Long> INCREMENT_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/post-counter-increment.lua"), Long.class);
+    private static final String LIKES = "likes";
+    private static final String COMMENTS = "comments";
+    private static final long TTL_SECONDS = Duration.ofHours(24).toSeconds();
+
+    private final StringRedisTemplate redisTemplate;
+
+    public void incrementLikes(Long postId, long delta) {
+        increment(postId, LIKES, delta);
+    }
+
+    public void incrementComments(Long postId, long delta) {
+        increment(postId, COMMENTS, delta);
+    }
+
+    public void seed(PostCache post) {
+        seedAll(List.of(post));
+    }
+
+    public void seedAll(Collection<PostCache> posts) {
+        if (posts.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            posts.forEach(post -> {
+                String key = getKey(post.getId());
+                stringConnection.hSetNX(key, LIKES, String.valueOf(valueOrZero(post.getLikesCount())));
+                stringConnection.hSetNX(key, COMMENTS, String.valueOf(valueOrZero(post.getCommentsCount())));
+                stringConnection.expire(key, TTL_SECONDS);
+            });
+            return null;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<Long, PostCounters> getAll(Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Long> orderedIds = new ArrayList<>(postIds);
+        List<Object> values = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            orderedIds.forEach(postId -> stringConnection.hMGet(getKey(postId), LIKES, COMMENTS));
+            return null;
+        });
+
+        Map<Long, PostCounters> counters = new HashMap<>();
+        for (int i = 0; i < orderedIds.size(); i++) {
+            List<String> fields = (List<String>) values.get(i);
+            if (fields != null && fields.get(0) != null && fields.get(1) != null) {
+                counters.put(orderedIds.get(i),
+                        new PostCounters(Long.valueOf(fields.get(0)), Long.valueOf(fields.get(1))));
+            }
+        }
+        return counters;
+    }
+
+    private void increment(Long postId, String field, long delta) {
+        Long value = redisTemplate.execute(INCREMENT_SCRIPT, List.of(getKey(postId)), field, String.valueOf(delta));
+        if (value == null) {
+            log.debug("Counters of post {} are not cached, skipping {} increment", postId, field);
+        }
+    }
+
+    private long valueOrZero(Long value) {
+        return value == null ? 0L : value;
+    }
+
+    private String getKey(Long postId) {
+        return "post-counters:" + postId;
+    }
+}
@@ -0,0 +1,4 @@
+package faang.school.postservice.service.cash;
+
+public record PostCounters(Long likesCount, Long commentsCount) {
+}
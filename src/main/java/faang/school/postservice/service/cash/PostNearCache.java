@@ -0,0 +1,59 @@
+package faang.school.postservice.service.cash;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import faang.school.postservice.redis.entities.PostCache;
+import faang.school.postservice.repository.redis.PostCacheStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Component
+public class PostNearCache {
+    private final PostCacheStore postCacheStore;
+    private final Cache<Long, PostCache> posts;
+
+    public PostNearCache(PostCacheStore postCacheStore,
+                         MeterRegistry meterRegistry,
+                         @Value("${spring.data.cache.near-cache.max-size:10000}") long maxSize,
+                         @Value("${spring.data.cache.near-cache.ttl:5}") long ttlSeconds) {
+        this.postCacheStore = postCacheStore;
+        this.posts = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, posts, "post-near-cache");
+    }
+
+    public Map<Long, PostCache> getAll(Collection<Long> postIds) {
+        Map<Long, PostCache> result = new HashMap<>(posts.getAllPresent(postIds));
+        List<Long> missingIds = postIds.stream()
+                .filter(postId -> !result.containsKey(postId))
+                .toList();
+        if (!missingIds.isEmpty()) {
+            Map<Long, PostCache> loaded = postCacheStore.findAllById(missingIds);
+            posts.putAll(loaded);
+            result.putAll(loaded);
+        }
+        return result;
+    }
+
+    public void put(PostCache postCache) {
+        posts.put(postCache.getId(), postCache);
+    }
+
+    public void invalidate(Long postId) {
+        posts.invalidate(postId);
+        log.debug("Invalidated post {} in near cache", postId);
+    }
+}
@@ -0,0 +1,124 @@
+package faang.school.postservice.service.comment;
+
+import faang.school.postservice.config.moderation.DictionarySnapshot;
+import faang.school.postservice.config.moderation.ModerationDictionary;
+import faang.school.postservice.kafka.event.NewCommentEvent;
+import faang.school.postservice.kafka.producer.KafkaCommentProducer;
+import faang.school.postservice.model.Comment;
+import faang.school.postservice.repository.CommentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Модерация комментария при создании. Проверка словарём линейна по длине текста,
+ * поэтому бюджет задержки выражен максимальной длиной: короткие комментарии проверяются
+ * синхронно, длинные ставятся в очередь {@link CommentModerationStage}, а если она заполнена -
+ * остаются непроверенными до планового прохода {@link CommentModerationService}.
+ */
+@Slf4j
+@Component
+public class CommentInlineModerator {
+    private final ModerationDictionary moderationDictionary;
+    private final CommentModerationStage moderationStage;
+    private final CommentRepository commentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaCommentProducer kafkaCommentProducer;
+    private final Timer inlineChecks;
+    private final Counter queued;
+    private final Counter deferred;
+
+    @Value("${spring.scheduler.comment.moderator.inline.enabled:true}")
+    private boolean inlineEnabled;
+
+    @Value("${spring.scheduler.comment.moderator.inline.max-length:2048}")
+    private int inlineMaxLength;
+
+    public CommentInlineModerator(ModerationDictionary moderationDictionary,
+                                  CommentModerationStage moderationStage,
+                                  CommentRepository commentRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  KafkaCommentProducer kafkaCommentProducer,
+                                  MeterRegistry meterRegistry) {
+        this.moderationDictionary = moderationDictionary;
+        this.moderationStage = moderationStage;
+        this.commentRepository = commentRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.kafkaCommentProducer = kafkaCommentProducer;
+        this.inlineChecks = Timer.builder("comment.moderation.inline")
+                .description("Time spent checking a new comment on the request thread")
+                .register(meterRegistry);
+        this.queued = fallbackCounter("queued", meterRegistry);
+        this.deferred = fallbackCounter("deferred", meterRegistry);
+    }
+
+    /**
+     * Проставляет вердикт комментарию до сохранения, если проверка укладывается в бюджет
+     * и словарь загружен.
+     *
+     * @return true, если комментарий проверен синхронно
+     */
+    public boolean moderate(Comment comment) {
+        String content = comment.getContent();
+        if (!inlineEnabled || content == null || content.length() > inlineMaxLength) {
+            return false;
+        }
+        DictionarySnapshot dictionary = moderationDictionary.getSnapshot();
+        if (!dictionary.isLoaded()) {
+            return false;
+        }
+        long start = System.nanoTime();
+        boolean approved = !dictionary.containsCurseWords(content);
+        inlineChecks.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        comment.setVerified(approved);
+        comment.setVerifiedAt(LocalDateTime.now());
+        comment.setDictionaryVersion(dictionary.version());
+        return true;
+    }
+
+    /**
+     * Асинхронная проверка уже сохранённого комментария; не блокирует поток запроса.
+     * Событие о создании ушло непроверенным, поэтому одобрение отправляется отдельным событием.
+     */
+    public void moderateLater(Comment comment) {
+        Long commentId = comment.getId();
+        String content = comment.getContent();
+        NewCommentEvent approval = NewCommentEvent.approvalOf(commentId, comment.getPost().getId(),
+                comment.getAuthorId(), content, comment.getCreatedAt());
+        boolean accepted = moderationStage.trySubmit(() -> {
+            DictionarySnapshot dictionary = moderationDictionary.getSnapshot();
+            if (!dictionary.isLoaded()) {
+                log.warn("Curse words dictionary is not loaded, comment {} is left unverified", commentId);
+                return false;
+            }
+            boolean approved = !dictionary.containsCurseWords(content);
+            Integer updated = transactionTemplate.execute(status -> commentRepository.updateVerdicts(
+                    List.of(commentId), approved, LocalDateTime.now(), dictionary.version()));
+            if (approved && updated != null && updated > 0) {
+                kafkaCommentProducer.sendCommentEvent(approval);
+            }
+            return approved;
+        }).isPresent();
+        if (accepted) {
+            queued.increment();
+        } else {
+            deferred.increment();
+            log.debug("Moderation queue is full, comment {} is left for the scheduled run", commentId);
+        }
+    }
+
+    private Counter fallbackCounter(String path, MeterRegistry meterRegistry) {
+        return Counter.builder("comment.moderation.fallback")
+                .description("New comments that were not moderated inline")
+                .tag("path", path)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,180 @@
+package faang.school.postservice.service.comment;
+
+import faang.school.postservice.config.moderation.DictionarySnapshot;
+import faang.school.postservice.config.moderation.ModerationDictionary;
+import faang.school.postservice.dto.comment.CommentModerationView;
+import faang.school.postservice.kafka.event.NewCommentEvent;
+import faang.school.postservice.kafka.producer.KafkaCommentProducer;
+import faang.school.postservice.repository.CommentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.ListUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Модерация непроверенных комментариев страницами по id. Страница проверяется параллельно
+ * в {@link CommentModerationStage}, вердикты пишутся пакетными UPDATE, а последний обработанный id
+ * сохраняется в Redis, поэтому прерванный проход продолжается с того же места,
+ * а память не зависит от размера бэклога.
+ */
+@Slf4j
+@Service
+public class CommentModerationService {
+    static final String CHECKPOINT_KEY = "comment-moderation:checkpoint";
+    static final String LOCK_KEY = "comment-moderation:lock";
+    static final RedisScript<Long> LOCK_EXTEND_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/lock-extend.lua"), Long.class);
+    static final RedisScript<Long> LOCK_RELEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/lock-release.lua"), Long.class);
+
+    private final CommentRepository commentRepository;
+    private final ModerationDictionary moderationDictionary;
+    private final StringRedisTemplate redisTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CommentModerationStage moderationStage;
+    private final KafkaCommentProducer kafkaCommentProducer;
+
+    @Value("${spring.scheduler.comment.moderator.page-size:10000}")
+    private int pageSize;
+
+    @Value("${spring.scheduler.comment.moderator.partition-size:1000}")
+    private int partitionSize;
+
+    @Value("${spring.scheduler.comment.moderator.max-pages-per-run:100}")
+    private int maxPagesPerRun;
+
+    @Value("${spring.scheduler.comment.moderator.lock-ttl-seconds:120}")
+    private long lockTtlSeconds;
+
+    public CommentModerationService(CommentRepository commentRepository,
+                                    ModerationDictionary moderationDictionary,
+                                    StringRedisTemplate redisTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    CommentModerationStage moderationStage,
+                                    KafkaCommentProducer kafkaCommentProducer) {
+        this.commentRepository = commentRepository;
+        this.moderationDictionary = moderationDictionary;
+        this.redisTemplate = redisTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.moderationStage = moderationStage;
+        this.kafkaCommentProducer = kafkaCommentProducer;
+    }
+
+    public void moderatePendingComments() {
+        Duration lockTtl = Duration.ofSeconds(lockTtlSeconds);
+        String lockToken = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, lockToken, lockTtl))) {
+            log.debug("Comment moderation is already running on another instance");
+            return;
+        }
+        try {
+            if (!moderationDictionary.getSnapshot().isLoaded()) {
+                // без словаря любой комментарий прошёл бы проверку, поэтому проход пропускается
+                log.error("Curse words dictionary is not loaded, skipping comment moderation");
+                return;
+            }
+            long cursor = readCheckpoint();
+            long moderated = 0;
+            for (int page = 0; page < maxPagesPerRun; page++) {
+                List<CommentModerationView> comments = commentRepository.findUncheckedPage(cursor, pageSize);
+                if (!comments.isEmpty()) {
+                    moderatePage(comments);
+                    moderated += comments.size();
+                }
+                // конец бэклога: следующий проход начнётся с начала и подберёт комментарии,
+                // закоммиченные позже соседей с большими id
+                cursor = comments.size() < pageSize ? 0 : comments.get(comments.size() - 1).getId();
+                redisTemplate.opsForValue().set(CHECKPOINT_KEY, String.valueOf(cursor));
+                if (cursor == 0) {
+                    break;
+                }
+                if (!extendLock(lockToken, lockTtl)) {
+                    log.warn("Comment moderation lock expired, stopping the run after id {}", cursor);
+                    break;
+                }
+            }
+            if (moderated > 0) {
+                log.info("Moderated {} comments, next run starts after id {}", moderated, cursor);
+            }
+        } finally {
+            redisTemplate.execute(LOCK_RELEASE_SCRIPT, List.of(LOCK_KEY), lockToken);
+        }
+    }
+
+    // блокировка могла истечь и достаться другому инстансу - тогда продлевать и удалять её нельзя
+    private boolean extendLock(String lockToken, Duration lockTtl) {
+        Long extended = redisTemplate.execute(LOCK_EXTEND_SCRIPT, List.of(LOCK_KEY),
+                lockToken, String.valueOf(lockTtl.toMillis()));
+        return extended != null && extended > 0;
+    }
+
+    private void moderatePage(List<CommentModerationView> comments) {
+        DictionarySnapshot dictionary = moderationDictionary.getSnapshot();
+        List<CompletableFuture<List<Long>>> partitions = ListUtils.partition(comments, partitionSize).stream()
+                .map(partition -> moderationStage.submit(() -> findRejected(partition, dictionary)))
+                .toList();
+        // ждём все партиции: при ошибке любой из них страница не пишется и курсор не сдвигается
+        CompletableFuture.allOf(partitions.toArray(CompletableFuture[]::new)).join();
+
+        Set<Long> rejected = new HashSet<>();
+        partitions.forEach(partition -> rejected.addAll(partition.join()));
+        List<CommentModerationView> approvedComments = comments.stream()
+                .filter(comment -> !rejected.contains(comment.getId()))
+                .toList();
+        List<Long> approved = approvedComments.stream()
+                .map(CommentModerationView::getId)
+                .toList();
+
+        LocalDateTime verifiedAt = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!approved.isEmpty()) {
+                commentRepository.updateVerdicts(approved, true, verifiedAt, dictionary.version());
+            }
+            if (!rejected.isEmpty()) {
+                commentRepository.updateVerdicts(rejected, false, verifiedAt, dictionary.version());
+            }
+        });
+        log.debug("Verified {} comments, {} rejected", comments.size(), rejected.size());
+        publishApprovals(approvedComments);
+    }
+
+    // При создании эти комментарии ушли в ленту непроверенными, одобрение добавляет их в последние комментарии поста
+    private void publishApprovals(List<CommentModerationView> approvedComments) {
+        approvedComments.forEach(comment -> {
+            try {
+                kafkaCommentProducer.sendCommentEvent(NewCommentEvent.approvalOf(comment.getId(),
+                        comment.getPostId(), comment.getAuthorId(), comment.getContent(), comment.getCreatedAt()));
+            } catch (Exception e) {
+                log.warn("Failed to publish approval of comment {}", comment.getId(), e);
+            }
+        });
+    }
+
+    private List<Long> findRejected(List<CommentModerationView> comments, DictionarySnapshot dictionary) {
+        List<Long> rejected = new ArrayList<>();
+        comments.forEach(comment -> {
+            if (dictionary.containsCurseWords(comment.getContent())) {
+                rejected.add(comment.getId());
+            }
+        });
+        return rejected;
+    }
+
+    private long readCheckpoint() {
+        String checkpoint = redisTemplate.opsForValue().get(CHECKPOINT_KEY);
+        return checkpoint == null ? 0 : Long.parseLong(checkpoint);
+    }
+}
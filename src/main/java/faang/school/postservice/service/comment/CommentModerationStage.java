@@ -0,0 +1,99 @@
+package faang.school.postservice.service.comment;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Стадия параллельной модерации поверх пула executorCommentModerator.
+ * Число задач в работе ограничено потоками плюс ёмкостью очереди: при заполнении {@link #submit}
+ * блокирует вызывающий поток. Очередь пула рассчитана на все разрешения сразу (см. ExecutorConfig),
+ * поэтому пул не отклоняет задачи, даже если разрешение вернулось раньше, чем освободился поток.
+ * Длительность каждой партиции пишется в таймер comment.moderation.partition с тегом outcome.
+ */
+@Slf4j
+@Component
+public class CommentModerationStage {
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final Timer succeeded;
+    private final Timer failed;
+
+    public CommentModerationStage(@Qualifier("executorCommentModerator") ExecutorService executor,
+                                  @Value("${spring.scheduler.comment.moderator.treads-count}") int threadsCount,
+                                  @Value("${spring.scheduler.comment.moderator.queue-capacity:20}") int queueCapacity,
+                                  MeterRegistry meterRegistry) {
+        this.executor = executor;
+        this.permits = new Semaphore(threadsCount + queueCapacity);
+        this.succeeded = partitionTimer("success", meterRegistry);
+        this.failed = partitionTimer("failure", meterRegistry);
+        Gauge.builder("comment.moderation.partitions.in.flight", permits,
+                        semaphore -> threadsCount + queueCapacity - semaphore.availablePermits())
+                .description("Moderation partitions submitted and not yet completed")
+                .register(meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> partitionTask) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> timed(partitionTask), executor)
+                    .whenComplete((result, error) -> permits.release());
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Неблокирующий вариант {@link #submit}: при исчерпании лимита возвращает пустой Optional.
+     */
+    public <T> Optional<CompletableFuture<T>> trySubmit(Supplier<T> partitionTask) {
+        if (!permits.tryAcquire()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(CompletableFuture.supplyAsync(() -> timed(partitionTask), executor)
+                    .whenComplete((result, error) -> permits.release()));
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private <T> T timed(Supplier<T> partitionTask) {
+        long start = System.nanoTime();
+        try {
+            T result = partitionTask.get();
+            succeeded.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (RuntimeException e) {
+            failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.error("Comment moderation partition failed", e);
+            throw e;
+        }
+    }
+
+    private Timer partitionTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("comment.moderation.partition")
+                .description("Time to check one partition of comments against the dictionary")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
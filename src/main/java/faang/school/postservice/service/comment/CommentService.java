@@ -2,7 +2,6 @@ package faang.school.postservice.service.comment;
 
 import faang.school.postservice.client.UserServiceClient;
 import faang.school.postservice.config.context.UserContext;
-import faang.school.postservice.config.moderation.ModerationDictionary;
 import faang.school.postservice.dto.comment.CommentDto;
 import faang.school.postservice.dto.comment.ResponseCommentDto;
 import faang.school.postservice.dto.user.UserDto;
@@ -16,20 +15,16 @@ import faang.school.postservice.repository.PostRepository;
 import faang.school.postservice.validator.comment.CommentIdValidator;
 import faang.school.postservice.validator.comment.CommentValidator;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.collections4.ListUtils;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.UUID;
 
 @Slf4j
 @Service
@@ -43,8 +38,8 @@ public class CommentService {
     private final PostRepository postRepository;
     private final CommentMapper commentMapper;
     private final UserContext userContext;
-    private final ModerationDictionary moderator;
     private final KafkaCommentProducer kafkaCommentProducer;
+    private final CommentInlineModerator inlineModerator;
 
     public ResponseCommentDto addComment(Long postId, CommentDto commentDto) {
         validateUser(commentDto.getAuthorId());
@@ -54,16 +49,22 @@ public class CommentService {
         Comment comment = commentMapper.toEntity(commentDto);
         comment.setAuthorId(userContext.getUserId());
         comment.setPost(getPost(postId));
+        boolean moderatedInline = inlineModerator.moderate(comment);
 
         Comment savedComment = commentRepository.save(comment);
         log.info("Comment creation completed for post: {}, comment id: {}", postId, savedComment.getId());
+        if (!moderatedInline) {
+            inlineModerator.moderateLater(savedComment);
+        }
 
         kafkaCommentProducer.sendCommentEvent(NewCommentEvent.builder()
+                .eventId(UUID.randomUUID())
                 .id(savedComment.getId())
                 .postId(postId)
                 .authorId(savedComment.getAuthorId())
                 .content(savedComment.getContent())
                 .createdAt(savedComment.getCreatedAt())
+                .verified(moderatedInline && Boolean.TRUE.equals(savedComment.getVerified()))
                 .build());
 
         ResponseCommentDto responseDto = ResponseCommentDto.builder()
@@ -152,33 +153,6 @@ public class CommentService {
         return commentRepository.existsById(commentId);
     }
 
-    @Transactional
-    public void verifyComments(int subListSize) {
-        List<Comment> comments = commentRepository.findAllUnCheckedComments();
-        if (comments.isEmpty()) {
-            log.info("No comments for moderation");
-            return;
-        }
-        log.info("Found {} comments for moderation", comments.size());
-        List<List<Comment>> partitionsComments = ListUtils.partition(comments, subListSize);
-        for (List<Comment> partitionComments : partitionsComments) {
-            verifyComment(partitionComments);
-        }
-        log.info("Verified all {} comments", comments.size());
-    }
-
-    @Async("executorCommentModerator")
-    protected void verifyComment(List<Comment> comments) {
-        CompletableFuture.runAsync(() -> {
-            comments.forEach(comment -> {
-                comment.setVerified(moderator.checkCurseWordsInComment(comment.getContent()));
-                comment.setVerifiedAt(LocalDateTime.now());
-            });
-            commentRepository.saveAll(comments);
-            log.info("Verified {} comments", comments.size());
-        });
-    }
-
     public List<Comment> getLatestCommentsByPostId(Long postId, int limit) {
         try {
             Post post = getPost(postId);
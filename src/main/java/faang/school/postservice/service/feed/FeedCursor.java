@@ -0,0 +1,39 @@
+package faang.school.postservice.service.feed;
+
+import faang.school.postservice.exception.InvalidFeedCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record FeedCursor(long score, long postId) {
+    private static final String SEPARATOR = ":";
+
+    public static FeedCursor of(FeedEntry entry) {
+        return new FeedCursor(entry.score(), entry.postId());
+    }
+
+    public static FeedCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid feed cursor: " + cursor);
+            }
+            return new FeedCursor(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidFeedCursorException("Invalid feed cursor: " + cursor, e);
+        }
+    }
+
+    public String encode() {
+        String raw = score + SEPARATOR + postId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean precedes(FeedEntry entry) {
+        if (entry.score() != score) {
+            return entry.score() < score;
+        }
+        return String.valueOf(entry.postId()).compareTo(String.valueOf(postId)) < 0;
+    }
+}
@@ -0,0 +1,10 @@
+package faang.school.postservice.service.feed;
+
+import java.util.Comparator;
+
+public record FeedEntry(long postId, long score) {
+    public static final Comparator<FeedEntry> NEWEST_FIRST = Comparator
+            .comparingLong(FeedEntry::score)
+            .thenComparing(entry -> String.valueOf(entry.postId()))
+            .reversed();
+}
@@ -0,0 +1,15 @@
+package faang.school.postservice.service.feed;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class FeedFanOutPolicy {
+
+    @Value("${spring.data.cache.feed.celebrity-threshold:10000}")
+    private int celebrityThreshold;
+
+    public boolean isCelebrity(Long authorId, long subscriberCount) {
+        return authorId != null && celebrityThreshold > 0 && subscriberCount >= celebrityThreshold;
+    }
+}
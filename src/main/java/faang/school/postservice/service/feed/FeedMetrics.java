@@ -0,0 +1,47 @@
+package faang.school.postservice.service.feed;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+@Component
+public class FeedMetrics {
+    private final Counter cachedPosts;
+    private final Counter databasePosts;
+    private final Counter databaseBypassedPages;
+    private final Counter databasePages;
+
+    public FeedMetrics(MeterRegistry meterRegistry) {
+        cachedPosts = Counter.builder("feed.hydration.posts")
+                .tag("source", "cache")
+                .register(meterRegistry);
+        databasePosts = Counter.builder("feed.hydration.posts")
+                .tag("source", "database")
+                .register(meterRegistry);
+        databaseBypassedPages = Counter.builder("feed.hydration.pages")
+                .tag("database", "bypassed")
+                .register(meterRegistry);
+        databasePages = Counter.builder("feed.hydration.pages")
+                .tag("database", "queried")
+                .register(meterRegistry);
+        Gauge.builder("feed.hydration.database.bypass.ratio", this, FeedMetrics::databaseBypassRatio)
+                .description("Share of feed posts hydrated without a Postgres read")
+                .register(meterRegistry);
+    }
+
+    public void recordPage(int pagePosts, int databasePosts) {
+        cachedPosts.increment(pagePosts - databasePosts);
+        this.databasePosts.increment(databasePosts);
+        if (databasePosts == 0) {
+            databaseBypassedPages.increment();
+        } else {
+            databasePages.increment();
+        }
+    }
+
+    private double databaseBypassRatio() {
+        double total = cachedPosts.count() + databasePosts.count();
+        return total == 0 ? 0 : cachedPosts.count() / total;
+    }
+}
@@ -8,29 +8,46 @@ import faang.school.postservice.model.Post;
 import faang.school.postservice.redis.entities.CommentCache;
 import faang.school.postservice.redis.entities.PostCache;
 import faang.school.postservice.repository.PostRepository;
-import faang.school.postservice.repository.redis.PostCacheRepository;
+import faang.school.postservice.repository.redis.PostCacheStore;
 import faang.school.postservice.service.cash.CommentCacheService;
+import faang.school.postservice.service.cash.PostCounterCache;
+import faang.school.postservice.service.cash.PostCounters;
+import faang.school.postservice.service.cash.PostNearCache;
+import faang.school.postservice.service.subscription.SubscriptionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class FeedService {
-    private final PostCacheRepository postCacheRepository;
+    private final PostCacheStore postCacheStore;
     private final PostRepository postRepository;
     private final CommentCacheService commentCacheService;
     private final UserFeedZSetService userFeedZSetService;
     private final PostMapper postMapper;
+    private final FeedMetrics feedMetrics;
+    private final SubscriptionService subscriptionService;
+    private final PostNearCache postNearCache;
+    private final PostCounterCache postCounterCache;
+    private final Map<Long, CompletableFuture<Void>> feedRebuilds = new ConcurrentHashMap<>();
 
     @Value("${spring.data.cache.feed.feed-size}")
     private int feedSize;
@@ -38,74 +55,171 @@ public class FeedService {
     @Value("${spring.data.cache.feed.max-page-size}")
     private int maxPageSize;
 
-    public FeedResponse getFeed(Long userId, Long lastPostId, int pageSize) {
+    @Value("${spring.data.cache.feed.cache-only:false}")
+    private boolean cacheOnly;
+
+    public FeedResponse getFeed(Long userId, String cursor, int pageSize) {
         pageSize = validateAndAdjustPageSize(pageSize);
-        List<Long> postIds = getPostIdsForFeed(userId, lastPostId, pageSize);
-        List<PostDTO> posts = fetchAndMapPosts(postIds);
-        return buildFeedResponse(posts, pageSize);
+        FeedCursor feedCursor = cursor == null ? null : FeedCursor.decode(cursor);
+        List<FeedEntry> entries = getFeedEntries(userId, feedCursor, pageSize);
+        List<PostDTO> posts = fetchAndMapPosts(entries.stream().map(FeedEntry::postId).toList());
+        return buildFeedResponse(posts, entries, pageSize);
     }
 
     private int validateAndAdjustPageSize(int pageSize) {
         return Math.min(pageSize, maxPageSize);
     }
 
-    private List<Long> getPostIdsForFeed(Long userId, Long lastPostId, int pageSize) {
-        List<Long> postIds = userFeedZSetService.getFeedPosts(userId, lastPostId, pageSize);
-        if (postIds.isEmpty()) {
+    private List<FeedEntry> getFeedEntries(Long userId, FeedCursor cursor, int pageSize) {
+        List<FeedEntry> entries = userFeedZSetService.getFeedPosts(userId, cursor, pageSize);
+        if (entries.isEmpty() && cursor == null) {
             loadUserFeedFromDatabase(userId);
-            postIds = userFeedZSetService.getFeedPosts(userId, lastPostId, pageSize);
+            entries = userFeedZSetService.getFeedPosts(userId, null, pageSize);
         }
-        return postIds;
+        List<Long> celebrityIds = getFollowedCelebrities(userId);
+        if (celebrityIds.isEmpty()) {
+            return entries;
+        }
+        List<List<FeedEntry>> timelines = new ArrayList<>(celebrityIds.size() + 1);
+        timelines.add(entries);
+        timelines.addAll(userFeedZSetService.getTimelinesPosts(celebrityIds, cursor, pageSize));
+        return FeedTimelineMerger.merge(timelines, pageSize);
+    }
+
+    private List<Long> getFollowedCelebrities(Long userId) {
+        return userFeedZSetService.getFollowedCelebrities(userId).orElseGet(() ->
+                subscriptionService.findFolloweeIds(userId)
+                        .map(followeeIds -> {
+                            List<Long> celebrityIds = userFeedZSetService.filterCelebrities(followeeIds);
+                            userFeedZSetService.cacheFollowedCelebrities(userId, celebrityIds);
+                            return celebrityIds;
+                        })
+                        .orElse(Collections.emptyList()));
     }
 
     protected void loadUserFeedFromDatabase(Long userId) {
-        postRepository.findLatestPostsForUser(userId, PageRequest.of(0, feedSize))
-                .stream()
-                .filter(Post::canBeAddedToFeed)
-                .forEach(post -> userFeedZSetService.addPostToFeed(
-                        userId, post.getId(), post.getCreatedAt()));
+        CompletableFuture<Void> rebuild = new CompletableFuture<>();
+        CompletableFuture<Void> inFlightRebuild = feedRebuilds.putIfAbsent(userId, rebuild);
+        if (inFlightRebuild != null) {
+            log.debug("Waiting for in-flight feed rebuild of user {}", userId);
+            inFlightRebuild.handle((result, e) -> null).join();
+            return;
+        }
+        try {
+            rebuildUserFeed(userId);
+            rebuild.complete(null);
+        } catch (RuntimeException e) {
+            rebuild.completeExceptionally(e);
+            throw e;
+        } finally {
+            feedRebuilds.remove(userId, rebuild);
+        }
     }
 
-    private List<PostDTO> fetchAndMapPosts(List<Long> postIds) {
-        return postIds.stream()
-                .map(this::getPost)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
+    private void rebuildUserFeed(Long userId) {
+        List<Long> followeeIds = subscriptionService.getFolloweeIds(userId);
+        List<Long> projectIds = subscriptionService.getSubscribedProjectIds(userId);
+        if (followeeIds.isEmpty() && projectIds.isEmpty()) {
+            log.debug("User {} has no subscriptions, nothing to rebuild", userId);
+            return;
+        }
+        List<Long> celebrityIds = userFeedZSetService.filterCelebrities(followeeIds);
+        List<Long> pushedFolloweeIds = followeeIds.stream()
+                .filter(followeeId -> !celebrityIds.contains(followeeId))
                 .toList();
+        Map<Long, LocalDateTime> postTimestamps = findLatestFeedPosts(pushedFolloweeIds, projectIds).stream()
+                .collect(Collectors.toMap(Post::getId, Post::getPublishedAt, (first, second) -> first));
+        userFeedZSetService.addPostsToFeed(userId, postTimestamps);
+        log.info("Rebuilt feed of user {} with {} posts", userId, postTimestamps.size());
     }
 
-    private Optional<PostDTO> getPost(Long postId) {
-        return getCachedPost(postId)
-                .or(() -> getDatabasePost(postId));
+    private List<Post> findLatestFeedPosts(List<Long> followeeIds, List<Long> projectIds) {
+        List<Post> posts = new ArrayList<>();
+        if (!followeeIds.isEmpty()) {
+            posts.addAll(postRepository.findLatestFeedPostsByAuthors(followeeIds, feedSize));
+        }
+        if (!projectIds.isEmpty()) {
+            posts.addAll(postRepository.findLatestFeedPostsByProjects(projectIds, feedSize));
+        }
+        Set<Long> seen = new HashSet<>();
+        return posts.stream()
+                .filter(post -> post.getPublishedAt() != null)
+                .sorted(Comparator.comparing(Post::getPublishedAt).thenComparing(Post::getId).reversed())
+                .filter(post -> seen.add(post.getId()))
+                .limit(feedSize)
+                .toList();
     }
 
-    private Optional<PostDTO> getCachedPost(Long postId) {
-        return postCacheRepository.findById(postId)
-                .flatMap(post -> {
-                    Optional<Post> dbPostOpt = postRepository.findById(postId)
-                            .filter(Post::canBeAddedToFeed);
+    private List<PostDTO> fetchAndMapPosts(List<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, PostCache> cachedPosts = new HashMap<>(postNearCache.getAll(postIds));
+        List<Long> databaseIds = cacheOnly
+                ? postIds.stream().filter(postId -> !cachedPosts.containsKey(postId)).toList()
+                : postIds;
+        Map<Long, Post> feedPosts = findFeedPosts(databaseIds);
+        feedMetrics.recordPage(postIds.size(), databaseIds.size());
 
-                    return dbPostOpt.isPresent() ? Optional.of(mapToDTO(post)) : Optional.empty();
-                });
+        List<PostCache> uncachedPosts = feedPosts.values().stream()
+                .filter(post -> !cachedPosts.containsKey(post.getId()))
+                .map(this::toPostCache)
+                .toList();
+        if (!uncachedPosts.isEmpty()) {
+            postCacheStore.saveAll(uncachedPosts).forEach(postCache -> {
+                postNearCache.put(postCache);
+                cachedPosts.put(postCache.getId(), postCache);
+            });
+            postCounterCache.seedAll(uncachedPosts);
+        }
+
+        List<PostCache> pagePosts = postIds.stream()
+                .filter(postId -> canBeAddedToFeed(postId, cachedPosts, feedPosts))
+                .map(cachedPosts::get)
+                .filter(Objects::nonNull)
+                .toList();
+        Map<Long, PostCounters> counters = postCounterCache.getAll(pagePosts.stream().map(PostCache::getId).toList());
+        return pagePosts.stream()
+                .map(post -> mapToDTO(post, counters.get(post.getId())))
+                .toList();
     }
 
-    private Optional<PostDTO> getDatabasePost(Long postId) {
-        return postRepository.findById(postId)
-                .filter(Post::canBeAddedToFeed)
-                .map(post -> mapToDTO(cachePost(post)));
+    private Map<Long, Post> findFeedPosts(List<Long> postIds) {
+        Map<Long, Post> posts = new HashMap<>();
+        if (postIds.isEmpty()) {
+            return posts;
+        }
+        postRepository.findAllById(postIds).forEach(post -> {
+            if (post.canBeAddedToFeed()) {
+                posts.put(post.getId(), post);
+            }
+        });
+        return posts;
+    }
+
+    private boolean canBeAddedToFeed(Long postId, Map<Long, PostCache> cachedPosts, Map<Long, Post> feedPosts) {
+        if (feedPosts.containsKey(postId)) {
+            return true;
+        }
+        PostCache cachedPost = cachedPosts.get(postId);
+        return cacheOnly && cachedPost != null && cachedPost.canBeAddedToFeed();
     }
 
-    private PostCache cachePost(Post post) {
+    private PostCache toPostCache(Post post) {
         PostCache postCache = postMapper.toPostCache(post);
         postCache.setLastComments(commentCacheService.fetchLatestComments(post.getId()));
-        return postCacheRepository.save(postCache);
+        return postCache;
     }
 
-    private PostDTO mapToDTO(PostCache post) {
+    private PostDTO mapToDTO(PostCache post, PostCounters counters) {
         PostDTO dto = postMapper.postCacheToPostDTO(post);
         if (dto.getLastComments() == null) {
             dto.setLastComments(mapComments(post.getLastComments()));
         }
+        if (counters != null) {
+            dto.setLikesCount(counters.likesCount());
+            dto.setCommentsCount(counters.commentsCount());
+        }
         return dto;
     }
 
@@ -131,11 +245,12 @@ public class FeedService {
                 .build();
     }
 
-    private FeedResponse buildFeedResponse(List<PostDTO> posts, int pageSize) {
+    private FeedResponse buildFeedResponse(List<PostDTO> posts, List<FeedEntry> entries, int pageSize) {
         return FeedResponse.builder()
                 .posts(posts)
-                .hasMore(posts.size() >= pageSize)
+                .hasMore(entries.size() >= pageSize)
                 .lastPostId(posts.isEmpty() ? null : posts.get(posts.size() - 1).getId())
+                .nextCursor(entries.isEmpty() ? null : FeedCursor.of(entries.get(entries.size() - 1)).encode())
                 .build();
     }
 }
\ No newline at end of file
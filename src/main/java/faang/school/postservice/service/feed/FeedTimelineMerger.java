@@ -0,0 +1,43 @@
+package faang.school.postservice.service.feed;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+public final class FeedTimelineMerger {
+
+    private FeedTimelineMerger() {
+    }
+
+    public static List<FeedEntry> merge(List<List<FeedEntry>> timelines, int limit) {
+        if (timelines.size() == 1) {
+            return timelines.get(0).stream().limit(limit).toList();
+        }
+        PriorityQueue<Head> heads = new PriorityQueue<>(Math.max(1, timelines.size()),
+                (first, second) -> FeedEntry.NEWEST_FIRST.compare(first.entry, second.entry));
+        for (List<FeedEntry> timeline : timelines) {
+            Iterator<FeedEntry> iterator = timeline.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head(iterator.next(), iterator));
+            }
+        }
+        List<FeedEntry> merged = new ArrayList<>(limit);
+        Set<Long> seenPostIds = new HashSet<>();
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            if (seenPostIds.add(head.entry.postId())) {
+                merged.add(head.entry);
+            }
+            if (head.rest.hasNext()) {
+                heads.add(new Head(head.rest.next(), head.rest));
+            }
+        }
+        return merged;
+    }
+
+    private record Head(FeedEntry entry, Iterator<FeedEntry> rest) {
+    }
+}
@@ -3,59 +3,236 @@ package faang.school.postservice.service.feed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Range.Bound;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisZSetCommands.ZAddArgs;
+import org.springframework.data.redis.connection.zset.DefaultTuple;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserFeedZSetService {
+    private static final RedisScript<Long> FEED_FAN_IN_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/feed-fan-in.lua"), Long.class);
+    private static final int TIE_BREAKER_BITS = 10;
+    private static final long TIE_BREAKER_MASK = (1L << TIE_BREAKER_BITS) - 1;
+    private static final String CELEBRITIES_KEY = "celebrities";
+    private static final byte[] CELEBRITIES_KEY_BYTES = CELEBRITIES_KEY.getBytes(StandardCharsets.UTF_8);
+
     private final StringRedisTemplate redisTemplate;
 
     @Value("${spring.data.cache.feed.feed-size}")
     private int feed_size;
 
-    public void addPostToFeed(Long userId, Long postId, LocalDateTime timestamp) {
-        String feedKey = getFeedKey(userId);
-        double score = timestamp.toEpochSecond(ZoneOffset.UTC);
-        redisTemplate.opsForZSet()
-                .addIfAbsent(feedKey, postId.toString(), score);
-        redisTemplate.opsForZSet().removeRange(feedKey, 0, - feed_size - 1);
-    }
-
-    public List<Long> getFeedPosts(Long userId, Long lastPostId, int pageSize) {
-        String feedKey = getFeedKey(userId);
-        Set<String> posts;
-
-        if (lastPostId == null) {
-            posts = redisTemplate.opsForZSet().reverseRange(feedKey, 0, pageSize - 1);
-        } else {
-            Double score = redisTemplate.opsForZSet().score(feedKey, lastPostId.toString());
-            if (score != null) {
-                posts = redisTemplate.opsForZSet().reverseRangeByScore(
-                        feedKey, Double.NEGATIVE_INFINITY, score, 0, pageSize);
-            } else {
-                posts = new LinkedHashSet<>();
+    @Value("${spring.data.cache.feed.celebrity-followees-ttl:300}")
+    private long celebrityFolloweesTtl;
+
+    public static long toScore(LocalDateTime timestamp, long postId) {
+        long epochMillis = timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+        return (epochMillis << TIE_BREAKER_BITS) | (postId & TIE_BREAKER_MASK);
+    }
+
+    public void addPostToFeeds(long[] userIds, Long postId, LocalDateTime timestamp) {
+        if (userIds == null || userIds.length == 0) {
+            return;
+        }
+        List<String> feedKeys = new ArrayList<>(userIds.length);
+        for (long userId : userIds) {
+            feedKeys.add(getFeedKey(userId));
+        }
+        long score = toScore(timestamp, postId);
+        redisTemplate.execute(FEED_FAN_IN_SCRIPT, feedKeys,
+                postId.toString(), String.valueOf(score), String.valueOf(feed_size));
+    }
+
+    public void addPostsToFeed(Long userId, Map<Long, LocalDateTime> postTimestamps) {
+        if (postTimestamps.isEmpty()) {
+            return;
+        }
+        byte[] feedKey = getFeedKey(userId).getBytes(StandardCharsets.UTF_8);
+        Set<Tuple> tuples = postTimestamps.entrySet().stream()
+                .map(post -> new DefaultTuple(
+                        post.getKey().toString().getBytes(StandardCharsets.UTF_8),
+                        (double) toScore(post.getValue(), post.getKey())))
+                .collect(Collectors.toSet());
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.zSetCommands().zAdd(feedKey, tuples);
+            connection.zSetCommands().zRemRange(feedKey, 0, -feed_size - 1);
+            return null;
+        });
+    }
+
+    public List<FeedEntry> getFeedPosts(Long userId, FeedCursor cursor, int pageSize) {
+        return getEntries(getFeedKey(userId), cursor, pageSize);
+    }
+
+    public void addPostToTimeline(Long authorId, Long postId, LocalDateTime timestamp) {
+        byte[] timelineKey = getTimelineKey(authorId).getBytes(StandardCharsets.UTF_8);
+        byte[] member = postId.toString().getBytes(StandardCharsets.UTF_8);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.zSetCommands().zAdd(timelineKey, toScore(timestamp, postId), member, ZAddArgs.ifNotExists());
+            connection.zSetCommands().zRemRange(timelineKey, 0, -feed_size - 1);
+            connection.setCommands().sAdd(CELEBRITIES_KEY_BYTES, authorId.toString().getBytes(StandardCharsets.UTF_8));
+            return null;
+        });
+    }
+
+    /**
+     * Автор опустился ниже порога знаменитости: его посты снова раздаются по лентам подписчиков,
+     * поэтому таймлайн больше не читается и удаляется вместе с отметкой в celebrities.
+     */
+    public void removeCelebrity(Long authorId) {
+        byte[] timelineKey = getTimelineKey(authorId).getBytes(StandardCharsets.UTF_8);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.setCommands().sRem(CELEBRITIES_KEY_BYTES, authorId.toString().getBytes(StandardCharsets.UTF_8));
+            connection.keyCommands().del(timelineKey);
+            return null;
+        });
+    }
+
+    /**
+     * Читает страницы лент всех авторов одним пайплайном, порядок результатов совпадает с порядком authorIds.
+     */
+    public List<List<FeedEntry>> getTimelinesPosts(List<Long> authorIds, FeedCursor cursor, int pageSize) {
+        if (authorIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Long authorId : authorIds) {
+                readPage(connection, getTimelineKey(authorId).getBytes(StandardCharsets.UTF_8), cursor, pageSize);
             }
+            return null;
+        });
+        return toPages(results, cursor, pageSize);
+    }
+
+    public List<Long> filterCelebrities(List<Long> authorIds) {
+        if (authorIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Object, Boolean> membership = redisTemplate.opsForSet()
+                .isMember(CELEBRITIES_KEY, authorIds.stream().map(String::valueOf).toArray());
+        if (membership == null) {
+            return Collections.emptyList();
         }
+        return authorIds.stream()
+                .filter(authorId -> Boolean.TRUE.equals(membership.get(String.valueOf(authorId))))
+                .toList();
+    }
 
+    public Optional<List<Long>> getFollowedCelebrities(Long userId) {
+        String followees = redisTemplate.opsForValue().get(getCelebrityFolloweesKey(userId));
+        if (followees == null) {
+            return Optional.empty();
+        }
+        if (followees.isEmpty()) {
+            return Optional.of(Collections.emptyList());
+        }
+        return Optional.of(Arrays.stream(followees.split(","))
+                .map(Long::valueOf)
+                .toList());
+    }
+
+    public void cacheFollowedCelebrities(Long userId, List<Long> celebrityIds) {
+        String followees = celebrityIds.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+        redisTemplate.opsForValue().set(getCelebrityFolloweesKey(userId), followees,
+                Duration.ofSeconds(celebrityFolloweesTtl));
+    }
+
+    private List<FeedEntry> getEntries(String key, FeedCursor cursor, int pageSize) {
+        if (cursor == null) {
+            return toEntries(redisTemplate.opsForZSet().reverseRangeWithScores(key, 0, pageSize - 1), null, pageSize);
+        }
+        byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            readPage(connection, rawKey, cursor, pageSize);
+            return null;
+        });
+        return toPages(results, cursor, pageSize).stream()
+                .findFirst()
+                .orElse(Collections.emptyList());
+    }
+
+    /**
+     * После курсора читаются две выборки: все посты с тем же счётом, что у курсора, и pageSize постов строго ниже него.
+     * Совпадающих счётов может быть несколько, поэтому фиксированный запас в один элемент укорачивал бы страницу.
+     */
+    private void readPage(RedisConnection connection, byte[] key, FeedCursor cursor, int pageSize) {
+        if (cursor == null) {
+            connection.zSetCommands().zRevRangeWithScores(key, 0, pageSize - 1);
+            return;
+        }
+        double score = cursor.score();
+        connection.zSetCommands().zRevRangeByScoreWithScores(key, Range.just(score));
+        connection.zSetCommands().zRevRangeByScoreWithScores(key,
+                Range.of(Bound.unbounded(), Bound.exclusive(score)), Limit.limit().count(pageSize));
+    }
+
+    private List<List<FeedEntry>> toPages(List<Object> results, FeedCursor cursor, int pageSize) {
+        if (cursor == null) {
+            return results.stream()
+                    .map(result -> toEntries(toTuples(result), null, pageSize))
+                    .toList();
+        }
+        List<List<FeedEntry>> pages = new ArrayList<>(results.size() / 2);
+        for (int i = 0; i + 1 < results.size(); i += 2) {
+            List<FeedEntry> page = new ArrayList<>(toEntries(toTuples(results.get(i)), cursor, pageSize));
+            page.addAll(toEntries(toTuples(results.get(i + 1)), null, pageSize - page.size()));
+            pages.add(page);
+        }
+        return pages;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<TypedTuple<String>> toTuples(Object result) {
+        return result instanceof Set<?> ? (Set<TypedTuple<String>>) result : null;
+    }
+
+    private List<FeedEntry> toEntries(Set<TypedTuple<String>> posts, FeedCursor cursor, int pageSize) {
         if (posts == null) {
             return Collections.emptyList();
         }
 
         return posts.stream()
-                .filter(this::isValidLong)
-                .map(Long::valueOf)
+                .map(this::toFeedEntry)
+                .filter(Objects::nonNull)
+                .filter(entry -> cursor == null || cursor.precedes(entry))
+                .limit(pageSize)
                 .toList();
     }
 
+    private FeedEntry toFeedEntry(TypedTuple<String> tuple) {
+        if (tuple.getValue() == null || tuple.getScore() == null || !isValidLong(tuple.getValue())) {
+            return null;
+        }
+        return new FeedEntry(Long.parseLong(tuple.getValue()), tuple.getScore().longValue());
+    }
+
     private boolean isValidLong(String str) {
         try {
             Long.parseLong(str);
@@ -69,4 +246,12 @@ public class UserFeedZSetService {
     private String getFeedKey(Long userId) {
         return "feed:" + userId;
     }
-}
\ No newline at end of file
+
+    private String getTimelineKey(Long authorId) {
+        return "timeline:" + authorId;
+    }
+
+    private String getCelebrityFolloweesKey(Long userId) {
+        return "celebrity-followees:" + userId;
+    }
+}
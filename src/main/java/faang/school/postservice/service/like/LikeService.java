@@ -29,6 +29,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @Slf4j
 @Service
@@ -63,9 +64,11 @@ public class LikeService {
         likeRepository.save(likeForPost);
 
         kafkaLikeProducer.sendLikeEvent(NewLikeEvent.builder()
+                .eventId(UUID.randomUUID())
                 .postId(post.getId())
                 .userId(userId)
                 .type(LikeType.LIKE)
+                .createdAt(LocalDateTime.now())
                 .build());
 
         publishLikeEvent(userId, post.getAuthorId());
@@ -94,11 +97,14 @@ public class LikeService {
         }
         likeRepository.deleteByPostIdAndUserId(likeDtoForPost.getPostId(),
                 likeDtoForPost.getUserId());
+        likeRepository.recordPostLikeDeletion(likeDtoForPost.getPostId());
 
         kafkaLikeProducer.sendLikeEvent(NewLikeEvent.builder()
+                .eventId(UUID.randomUUID())
                 .postId(likeDtoForPost.getPostId())
                 .userId(likeDtoForPost.getUserId())
                 .type(LikeType.UNLIKE)
+                .createdAt(LocalDateTime.now())
                 .build());
     }
 
@@ -0,0 +1,98 @@
+package faang.school.postservice.service.post;
+
+import faang.school.postservice.dto.post.PostCounterDrift;
+import faang.school.postservice.repository.LikeRepository;
+import faang.school.postservice.repository.PostRepository;
+import faang.school.postservice.service.cash.PostCounterCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Service
+public class PostCounterReconciliationService {
+    private final PostRepository postRepository;
+    private final LikeRepository likeRepository;
+    private final PostCounterCache postCounterCache;
+    private final DistributionSummary likesDrift;
+    private final DistributionSummary commentsDrift;
+    private final Counter reconciledPosts;
+
+    public PostCounterReconciliationService(PostRepository postRepository,
+                                            LikeRepository likeRepository,
+                                            PostCounterCache postCounterCache,
+                                            MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        this.likeRepository = likeRepository;
+        this.postCounterCache = postCounterCache;
+        likesDrift = driftSummary("likes", meterRegistry);
+        commentsDrift = driftSummary("comments", meterRegistry);
+        reconciledPosts = Counter.builder("post.counters.reconciled")
+                .description("Posts whose stored counters were corrected")
+                .register(meterRegistry);
+    }
+
+    public long getMaxPostId() {
+        return postRepository.findMaxId();
+    }
+
+    @Transactional
+    public List<PostCounterDrift> reconcileRange(long fromId, long toId, OffsetDateTime settledBefore) {
+        likeRepository.deleteLikeDeletionsBefore(settledBefore);
+        List<PostCounterDrift> drifts = postRepository.findCounterDrift(fromId, toId, settledBefore);
+        List<PostCounterDrift> reconciled = new ArrayList<>(drifts.size());
+        for (PostCounterDrift drift : drifts) {
+            int updated = postRepository.applyCounterCorrection(drift.getPostId(),
+                    likesDelta(drift), commentsDelta(drift), settledBefore);
+            if (updated > 0) {
+                reconciled.add(drift);
+            }
+        }
+        if (reconciled.isEmpty()) {
+            return reconciled;
+        }
+
+        reconciled.forEach(drift -> {
+            likesDrift.record(Math.abs(likesDelta(drift)));
+            commentsDrift.record(Math.abs(commentsDelta(drift)));
+        });
+        reconciledPosts.increment(reconciled.size());
+        log.info("Reconciled counters of {} posts in id range [{}, {})", reconciled.size(), fromId, toId);
+        return reconciled;
+    }
+
+    // В Redis уходит та же поправка, что и в базу: инкременты, пришедшие после сверки, не затираются
+    public void refreshCachedCounters(List<PostCounterDrift> drifts) {
+        drifts.forEach(drift -> {
+            if (likesDelta(drift) != 0) {
+                postCounterCache.incrementLikes(drift.getPostId(), likesDelta(drift));
+            }
+            if (commentsDelta(drift) != 0) {
+                postCounterCache.incrementComments(drift.getPostId(), commentsDelta(drift));
+            }
+        });
+    }
+
+    private long likesDelta(PostCounterDrift drift) {
+        return drift.getActualLikes() - drift.getStoredLikes();
+    }
+
+    private long commentsDelta(PostCounterDrift drift) {
+        return drift.getActualComments() - drift.getStoredComments();
+    }
+
+    private DistributionSummary driftSummary(String counter, MeterRegistry meterRegistry) {
+        return DistributionSummary.builder("post.counters.drift")
+                .description("Absolute difference between stored and recomputed counter of a drifted post")
+                .tag("counter", counter)
+                .serviceLevelObjectives(0, 1, 2, 5, 10, 100, 1000)
+                .register(meterRegistry);
+    }
+}
@@ -9,13 +9,15 @@ import faang.school.postservice.dto.post.PostDraftResponseDto;
 import faang.school.postservice.dto.post.PostDraftWithFilesCreateDto;
 import faang.school.postservice.dto.post.PostResponseDto;
 import faang.school.postservice.dto.post.PostUpdateDto;
-import faang.school.postservice.kafka.event.NewPostEvent;
-import faang.school.postservice.kafka.producer.KafkaPostProducer;
 import faang.school.postservice.mapper.post.PostMapper;
 import faang.school.postservice.model.Post;
+import faang.school.postservice.model.PostOutboxEvent;
 import faang.school.postservice.model.Resource;
 import faang.school.postservice.publisher.MessageSenderForUserBanImpl;
+import faang.school.postservice.repository.PostOutboxRepository;
 import faang.school.postservice.repository.PostRepository;
+import faang.school.postservice.repository.redis.PostCacheStore;
+import faang.school.postservice.service.cash.PostNearCache;
 import faang.school.postservice.service.album.AlbumService;
 import faang.school.postservice.service.amazons3.Amazons3ServiceImpl;
 import faang.school.postservice.service.amazons3.processing.KeyKeeper;
@@ -46,6 +48,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
@@ -70,7 +73,9 @@ public class PostService {
     private final GingerCorrector gingerCorrector;
     private final MessageSenderForUserBanImpl messageSenderForUserBan;
     private final ObjectMapper objectMapper;
-    private final KafkaPostProducer kafkaPostProducer;
+    private final PostOutboxRepository postOutboxRepository;
+    private final PostCacheStore postCacheStore;
+    private final PostNearCache postNearCache;
 
     @Value("${size.not-verified-posts-for-users}")
     private int sizeNotVerifiedPostsForUsers;
@@ -105,6 +110,7 @@ public class PostService {
         return postMapper.toDraftDtoFromPost(postRepository.save(post));
     }
 
+    @Transactional
     public PostResponseDto publishPost(@Positive long postId) {
         Post post = getPostById(postId);
         if (post.isPublished()) {
@@ -114,10 +120,11 @@ public class PostService {
         post.setPublishedAt(LocalDateTime.now());
         Post savedPost = postRepository.save(post);
 
-        kafkaPostProducer.sendPostCreatedEvent(NewPostEvent.builder()
+        postOutboxRepository.save(PostOutboxEvent.builder()
                 .postId(savedPost.getId())
                 .authorId(savedPost.getAuthorId())
-                .content(savedPost.getContent())
+                .projectId(savedPost.getProjectId())
+                .publishedAt(savedPost.getPublishedAt())
                 .build());
         return postMapper.toDtoFromPost(savedPost);
     }
@@ -125,7 +132,9 @@ public class PostService {
     public PostResponseDto updatePost(@Positive long postId, @NotNull @Valid PostUpdateDto dto) {
         Post post = getPostById(postId);
         post.setContent(dto.getContent());
-        return postMapper.toDtoFromPost(postRepository.save(post));
+        Post savedPost = postRepository.save(post);
+        evictPostCache(postId);
+        return postMapper.toDtoFromPost(savedPost);
     }
 
     @Transactional
@@ -143,13 +152,17 @@ public class PostService {
 
         post.setResources(newResourcesToUpdate);
         post.setContent(dto.getContent());
-        return postMapper.toDtoFromPost(postRepository.save(post));
+        Post savedPost = postRepository.save(post);
+        evictPostCache(postId);
+        return postMapper.toDtoFromPost(savedPost);
     }
 
     public PostResponseDto deletePost(@Positive long postId) {
         Post post = getPostById(postId);
         post.setDeleted(true);
-        return postMapper.toDtoFromPost(postRepository.save(post));
+        Post savedPost = postRepository.save(post);
+        evictPostCache(postId);
+        return postMapper.toDtoFromPost(savedPost);
     }
 
     public Post findPostById(Long postId) {
@@ -224,6 +237,7 @@ public class PostService {
             log.info("No posts for verification found");
             return;
         }
+        evictUnverifiedPosts(posts);
         try {
             List<Long> userIds = getBannedUsers(posts);
             if (userIds == null || userIds.isEmpty()) {
@@ -246,6 +260,26 @@ public class PostService {
         postRepository.saveAll(checkPosts);
     }
 
+    // Верификация меняется вне сервиса, поэтому снявшие её посты вычищаются из PostCache здесь:
+    // в режиме cache-only лента доверяет закешированному флагу
+    private void evictUnverifiedPosts(List<Post> posts) {
+        try {
+            Set<Long> postIds = posts.stream().map(Post::getId).collect(Collectors.toSet());
+            postCacheStore.findAllById(postIds).keySet().forEach(this::evictPostCache);
+        } catch (Exception e) {
+            log.error("Failed to evict unverified posts from cache", e);
+        }
+    }
+
+    private void evictPostCache(Long postId) {
+        try {
+            postNearCache.invalidate(postId);
+            postCacheStore.deleteById(postId);
+        } catch (Exception e) {
+            log.error("Failed to evict post {} from cache", postId, e);
+        }
+    }
+
     private List<Long> getBannedUsers(List<Post> posts) {
         log.info("Checking users with not verified posts. Threshold: {}", sizeNotVerifiedPostsForUsers);
 
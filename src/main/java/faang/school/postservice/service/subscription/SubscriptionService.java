@@ -1,6 +1,7 @@
 package faang.school.postservice.service.subscription;
 
 import faang.school.postservice.client.UserServiceClient;
+import faang.school.postservice.dto.user.SubscriberIdsPage;
 import faang.school.postservice.model.Post;
 import faang.school.postservice.repository.PostRepository;
 import lombok.RequiredArgsConstructor;
@@ -9,11 +10,16 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,6 +33,9 @@ public class SubscriptionService {
     @Value("${spring.data.cache.warmup.posts-age-months}")
     private int postsAgeMonths;
 
+    @Value("${user-service.paged-subscribers:false}")
+    private boolean pagedSubscribers;
+
     public Set<Long> getAuthorIds() {
         try {
             LocalDateTime cutoffDate = LocalDateTime.now().minusMonths(postsAgeMonths);
@@ -71,30 +80,123 @@ public class SubscriptionService {
         }
     }
 
-    public Set<Long> getSubscriberIds(Post post) {
-        try {
-            Set<Long> subscribers = new HashSet<>();
+    /**
+     * Страница подписчиков пользователя. Пока постраничные эндпоинты user-service выключены флагом
+     * user-service.paged-subscribers, весь список приходит одной страницей со старого эндпоинта.
+     */
+    public SubscriberIdsPage getUserSubscriberPage(long userId, Long after, int limit) {
+        if (pagedSubscribers) {
+            return userServiceClient.getUserSubscriberIdsPage(userId, after, limit);
+        }
+        return toSinglePage(userServiceClient.getUserSubscribersIds(userId));
+    }
 
-            if (post.getAuthorId() != null) {
-                subscribers.addAll(userServiceClient.getUserSubscribersIds(post.getAuthorId()));
-                log.debug("Retrieved {} subscribers for author {}",
-                        subscribers.size(), post.getAuthorId());
-            }
+    public SubscriberIdsPage getProjectSubscriberPage(long projectId, Long after, int limit) {
+        if (pagedSubscribers) {
+            return userServiceClient.getProjectSubscriberIdsPage(projectId, after, limit);
+        }
+        return toSinglePage(userServiceClient.getProjectSubscriptions(projectId));
+    }
 
-            if (post.getProjectId() != null) {
-                subscribers.addAll(userServiceClient.getProjectSubscriptions(post.getProjectId()));
-                log.debug("Retrieved {} total subscribers after adding project {} subscribers",
-                        subscribers.size(), post.getProjectId());
-            }
+    public long countUserSubscribers(long userId) {
+        return countSubscribers(getUserSubscriberPage(userId, null, 1));
+    }
+
+    /**
+     * Число подписчиков по первой странице: total, а если user-service его не вернул, размер самой страницы.
+     */
+    public static long countSubscribers(SubscriberIdsPage firstPage) {
+        if (firstPage == null) {
+            return 0;
+        }
+        if (firstPage.getTotal() != null) {
+            return firstPage.getTotal();
+        }
+        return firstPage.getIds() == null ? 0 : firstPage.getIds().length;
+    }
+
+    public long forEachUserSubscriberChunk(long userId, int chunkSize, Consumer<long[]> chunkConsumer) {
+        return forEachUserSubscriberChunk(userId, getUserSubscriberPage(userId, null, chunkSize), chunkSize,
+                chunkConsumer);
+    }
+
+    /**
+     * Продолжает обход с уже полученной первой страницы, чтобы тот, кто решал по ней, раздавать ли пост,
+     * не скачивал её второй раз. Без постраничных эндпоинтов это весь список подписчиков.
+     */
+    public long forEachUserSubscriberChunk(long userId, SubscriberIdsPage firstPage, int chunkSize,
+                                           Consumer<long[]> chunkConsumer) {
+        long total = forEachChunk(firstPage, after -> getUserSubscriberPage(userId, after, chunkSize), chunkSize,
+                chunkConsumer);
+        log.debug("Streamed {} subscribers of user {}", total, userId);
+        return total;
+    }
+
+    public long forEachProjectSubscriberChunk(long projectId, int chunkSize, Consumer<long[]> chunkConsumer) {
+        long total = forEachChunk(getProjectSubscriberPage(projectId, null, chunkSize),
+                after -> getProjectSubscriberPage(projectId, after, chunkSize), chunkSize, chunkConsumer);
+        log.debug("Streamed {} subscribers of project {}", total, projectId);
+        return total;
+    }
 
-            if (subscribers.isEmpty()) {
-                log.warn("Post {} has no associated subscribers", post.getId());
+    private long forEachChunk(SubscriberIdsPage firstPage, Function<Long, SubscriberIdsPage> pageFetcher,
+                              int chunkSize, Consumer<long[]> chunkConsumer) {
+        long total = 0;
+        SubscriberIdsPage page = firstPage;
+        while (page != null) {
+            if (page.getIds() != null) {
+                for (long[] chunk : toChunks(page.getIds(), chunkSize)) {
+                    chunkConsumer.accept(chunk);
+                }
+                total += page.getIds().length;
             }
+            Long cursor = page.getNextCursor();
+            page = cursor == null ? null : pageFetcher.apply(cursor);
+        }
+        return total;
+    }
+
+    public static List<long[]> toChunks(long[] ids, int chunkSize) {
+        if (ids.length <= chunkSize) {
+            return ids.length == 0 ? Collections.emptyList() : List.of(ids);
+        }
+        List<long[]> chunks = new ArrayList<>((ids.length + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < ids.length; from += chunkSize) {
+            chunks.add(Arrays.copyOfRange(ids, from, Math.min(from + chunkSize, ids.length)));
+        }
+        return chunks;
+    }
+
+    private SubscriberIdsPage toSinglePage(List<Long> ids) {
+        long[] subscriberIds = ids == null ? new long[0] : ids.stream().mapToLong(Long::longValue).toArray();
+        return SubscriberIdsPage.builder()
+                .ids(subscriberIds)
+                .total((long) subscriberIds.length)
+                .build();
+    }
+
+    public List<Long> getFolloweeIds(Long userId) {
+        return findFolloweeIds(userId).orElse(Collections.emptyList());
+    }
 
-            return subscribers;
+    /**
+     * В отличие от {@link #getFolloweeIds(Long)} отличает ошибку user-service от пустого списка подписок.
+     */
+    public Optional<List<Long>> findFolloweeIds(Long userId) {
+        try {
+            return Optional.ofNullable(userServiceClient.getUserFolloweeIds(userId));
+        } catch (Exception e) {
+            log.error("Error retrieving followees for user {}", userId, e);
+            return Optional.empty();
+        }
+    }
+
+    public List<Long> getSubscribedProjectIds(Long userId) {
+        try {
+            return userServiceClient.getUserProjectSubscriptionIds(userId);
         } catch (Exception e) {
-            log.error("Error retrieving subscribers for post {}", post.getId(), e);
-            return Collections.emptySet();
+            log.error("Error retrieving project subscriptions for user {}", userId, e);
+            return Collections.emptyList();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS post_author_published_at_idx ON post (author_id, published_at DESC);
+CREATE INDEX IF NOT EXISTS post_project_published_at_idx ON post (project_id, published_at DESC);
@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS post_outbox (
+    id bigint PRIMARY KEY GENERATED ALWAYS AS IDENTITY UNIQUE,
+    post_id bigint NOT NULL,
+    author_id bigint,
+    project_id bigint,
+    published_at timestamptz,
+    created_at timestamptz DEFAULT current_timestamp
+);
@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS likes_post_id_created_at_idx ON likes (post_id, created_at);
+CREATE INDEX IF NOT EXISTS comment_post_id_created_at_idx ON comment (post_id, created_at);
@@ -0,0 +1 @@
+ALTER TABLE comment ADD COLUMN IF NOT EXISTS dictionary_version bigint;
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS comment_unverified_id_idx ON comment (id) WHERE verified IS NULL;
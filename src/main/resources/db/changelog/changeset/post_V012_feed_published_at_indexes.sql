@@ -0,0 +1,6 @@
+-- На свежей базе индексы по published_at уже создал V007, здесь только догоняются базы,
+-- где V007 успел построить индексы по created_at
+DROP INDEX IF EXISTS post_author_created_at_idx;
+DROP INDEX IF EXISTS post_project_created_at_idx;
+CREATE INDEX IF NOT EXISTS post_author_published_at_idx ON post (author_id, published_at DESC);
+CREATE INDEX IF NOT EXISTS post_project_published_at_idx ON post (project_id, published_at DESC);
@@ -0,0 +1,4 @@
+ALTER TABLE post_outbox ADD COLUMN IF NOT EXISTS attempts int NOT NULL DEFAULT 0;
+ALTER TABLE post_outbox ADD COLUMN IF NOT EXISTS next_attempt_at timestamptz NOT NULL DEFAULT current_timestamp;
+ALTER TABLE post_outbox ADD COLUMN IF NOT EXISTS status varchar(16) NOT NULL DEFAULT 'PENDING';
+CREATE INDEX IF NOT EXISTS post_outbox_pending_idx ON post_outbox (next_attempt_at, id) WHERE status = 'PENDING';
@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS like_deletion (
+    id bigint PRIMARY KEY GENERATED ALWAYS AS IDENTITY UNIQUE,
+    post_id bigint NOT NULL,
+    deleted_at timestamptz NOT NULL DEFAULT current_timestamp
+);
+CREATE INDEX IF NOT EXISTS like_deletion_post_id_deleted_at_idx ON like_deletion (post_id, deleted_at);
+CREATE INDEX IF NOT EXISTS like_deletion_deleted_at_idx ON like_deletion (deleted_at);
@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS processed_event (
+    event_id uuid PRIMARY KEY,
+    consumer varchar(32) NOT NULL,
+    processed_at timestamptz NOT NULL DEFAULT current_timestamp
+);
+CREATE INDEX IF NOT EXISTS processed_event_processed_at_idx ON processed_event (processed_at);
@@ -0,0 +1,5 @@
+-- Прежний джоб модерации писал verified = true для комментариев с матом, новый - для чистых.
+-- Все вердикты, проставленные до смены смысла, сбрасываются, и новый джоб проверяет эти комментарии заново
+UPDATE comment
+SET verified = NULL, verified_at = NULL, dictionary_version = NULL
+WHERE verified IS NOT NULL;
@@ -0,0 +1,9 @@
+-- KEYS - ключи лент подписчиков
+-- ARGV[1] - id поста, ARGV[2] - score, ARGV[3] - размер ленты
+local maxRank = -tonumber(ARGV[3]) - 1
+local added = 0
+for _, feedKey in ipairs(KEYS) do
+    added = added + redis.call('ZADD', feedKey, 'NX', ARGV[2], ARGV[1])
+    redis.call('ZREMRANGEBYRANK', feedKey, 0, maxRank)
+end
+return added
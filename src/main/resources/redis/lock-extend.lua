@@ -0,0 +1,7 @@
+-- KEYS[1] - ключ блокировки
+-- ARGV[1] - токен владельца, ARGV[2] - новый TTL в миллисекундах
+-- продлевается только своя блокировка
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+end
+return 0
@@ -0,0 +1,7 @@
+-- KEYS[1] - ключ блокировки
+-- ARGV[1] - токен владельца
+-- удаляется только своя блокировка: после истечения TTL ключ мог занять другой инстанс
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
@@ -0,0 +1,12 @@
+-- KEYS[1] - ключ счётчиков поста
+-- ARGV[1] - поле счётчика, ARGV[2] - приращение
+-- счётчики не создаются заново: пока их нет, источник правды - Postgres
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return nil
+end
+local value = redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2])
+if value < 0 then
+    redis.call('HSET', KEYS[1], ARGV[1], 0)
+    return 0
+end
+return value
@@ -0,0 +1,60 @@
+package faang.school.postservice.config.moderation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CurseWordMatcherTest {
+
+    private final CurseWordMatcher matcher = CurseWordMatcher.compile(List.of("fuck", "бля", "сукин_сын", "ёж"));
+
+    @Test
+    void containsMatch_ShouldMatchWholeWordsIgnoringCase() {
+        assertTrue(matcher.containsMatch("FUCK you"));
+        assertTrue(matcher.containsMatch("ok, бля!"));
+        assertFalse(matcher.containsMatch("nice fucking day"));
+        assertFalse(matcher.containsMatch("hello"));
+        assertFalse(matcher.containsMatch(""));
+    }
+
+    @Test
+    void containsMatch_ShouldMatchPhrasesAcrossSeparators() {
+        assertTrue(matcher.containsMatch("ты сукин   сын."));
+        assertTrue(matcher.containsMatch("сукин-сын"));
+        assertFalse(matcher.containsMatch("сукин сынок"));
+    }
+
+    @Test
+    void containsMatch_ShouldNormalizeUnicodeVariants() {
+        assertTrue(matcher.containsMatch("Ｆｕｃｋ"));
+        assertTrue(matcher.containsMatch("еж"));
+        assertTrue(matcher.containsMatch("ёж"));
+    }
+
+    @Test
+    void containsMatch_ShouldFoldLeetAndHomoglyphs() {
+        CurseWordMatcher leetMatcher = CurseWordMatcher.compile(List.of("shit", "ass", "хуй"));
+        assertTrue(leetMatcher.containsMatch("sh1t happens"));
+        assertTrue(leetMatcher.containsMatch("$HIT"));
+        assertTrue(leetMatcher.containsMatch("kiss my @ss"));
+        assertTrue(leetMatcher.containsMatch("xyй"));
+        assertFalse(leetMatcher.containsMatch("first class"));
+    }
+
+    @Test
+    void containsMatch_ShouldSeeThroughSingleSeparatorsAndStarInsideWord() {
+        assertTrue(matcher.containsMatch("f.u.c.k off"));
+        assertTrue(matcher.containsMatch("what the f*ck"));
+        assertTrue(matcher.containsMatch("ok,fuck"));
+        assertFalse(matcher.containsMatch("f.u.c.king"));
+        assertFalse(matcher.containsMatch("f. u. c. k"));
+    }
+
+    @Test
+    void containsMatch_WithEmptyDictionary_ShouldNeverMatch() {
+        assertFalse(CurseWordMatcher.compile(List.of()).containsMatch("fuck"));
+    }
+}
@@ -0,0 +1,76 @@
+package faang.school.postservice.config.moderation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModerationDictionaryTest {
+
+    @TempDir
+    private Path directory;
+
+    private Path dictionaryPath;
+    private ModerationDictionary moderationDictionary;
+
+    @BeforeEach
+    void setUp() {
+        dictionaryPath = directory.resolve("curse-words.txt");
+        moderationDictionary = new ModerationDictionary();
+        ReflectionTestUtils.setField(moderationDictionary, "curseWordsPath", dictionaryPath);
+    }
+
+    @Test
+    void init_WithMissingFile_ShouldStayNotLoaded() {
+        moderationDictionary.init();
+
+        assertSame(DictionarySnapshot.EMPTY, moderationDictionary.getSnapshot());
+        assertFalse(moderationDictionary.getSnapshot().isLoaded());
+    }
+
+    @Test
+    void reloadIfChanged_WhenFileChanges_ShouldSwapSnapshot() throws IOException {
+        write("fuck", Instant.parse("2024-01-01T00:00:00Z"));
+        moderationDictionary.init();
+        long initialVersion = moderationDictionary.getSnapshot().version();
+        assertTrue(moderationDictionary.getSnapshot().isLoaded());
+        assertTrue(moderationDictionary.checkCurseWordsInComment("fuck"));
+
+        write("бля", Instant.parse("2024-01-02T00:00:00Z"));
+        moderationDictionary.reloadIfChanged();
+
+        assertNotEquals(initialVersion, moderationDictionary.getSnapshot().version());
+        assertFalse(moderationDictionary.checkCurseWordsInComment("fuck"));
+        assertTrue(moderationDictionary.checkCurseWordsInComment("бля"));
+    }
+
+    @Test
+    void reloadIfChanged_WhenFileIsDeleted_ShouldKeepCurrentSnapshot() throws IOException {
+        write("fuck", Instant.parse("2024-01-01T00:00:00Z"));
+        moderationDictionary.init();
+        DictionarySnapshot loaded = moderationDictionary.getSnapshot();
+
+        Files.delete(dictionaryPath);
+        moderationDictionary.reloadIfChanged();
+
+        assertSame(loaded, moderationDictionary.getSnapshot());
+        assertEquals(loaded.version(), moderationDictionary.getSnapshot().version());
+    }
+
+    private void write(String content, Instant modifiedAt) throws IOException {
+        Files.writeString(dictionaryPath, content);
+        Files.setLastModifiedTime(dictionaryPath, FileTime.from(modifiedAt));
+    }
+}
@@ -0,0 +1,39 @@
+package faang.school.postservice.controller.feed;
+
+import faang.school.postservice.config.context.UserContext;
+import faang.school.postservice.exception.InvalidFeedCursorException;
+import faang.school.postservice.service.feed.FeedService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest
+@ContextConfiguration(classes = {FeedController.class})
+class FeedControllerTest {
+    private static final String URL_USER_FEED = "/api/v1/feed/user/{userId}";
+
+    @MockBean
+    private FeedService feedService;
+
+    @MockBean
+    private UserContext userContext;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void getUserFeedWithMalformedCursorReturnsBadRequest() throws Exception {
+        when(feedService.getFeed(1L, "not-a-cursor", 20))
+                .thenThrow(new InvalidFeedCursorException("Invalid feed cursor: not-a-cursor", null));
+
+        mockMvc.perform(get(URL_USER_FEED, 1L).param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,26 @@
+package faang.school.postservice.kafka.consumer;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CounterEventWindowTest {
+
+    private final CounterEventWindow window = new CounterEventWindow(300, 240);
+
+    @Test
+    void isStale_ShouldOnlyRejectEventsOlderThanMaxAge() {
+        assertFalse(window.isStale(LocalDateTime.now().minusSeconds(200)));
+        assertTrue(window.isStale(LocalDateTime.now().minusSeconds(250)));
+        assertFalse(window.isStale(null));
+    }
+
+    @Test
+    void constructor_ShouldRequireMaxAgeBelowSettleWindow() {
+        assertThrows(IllegalStateException.class, () -> new CounterEventWindow(300, 300));
+    }
+}
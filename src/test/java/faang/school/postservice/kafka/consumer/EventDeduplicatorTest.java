@@ -0,0 +1,77 @@
+package faang.school.postservice.kafka.consumer;
+
+import faang.school.postservice.repository.ProcessedEventRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventDeduplicatorTest {
+
+    @Mock
+    private ProcessedEventRepository processedEventRepository;
+
+    @InjectMocks
+    private EventDeduplicator eventDeduplicator;
+
+    @Test
+    void claimAll_ShouldReturnOnlyIdsInsertedByThisCall() {
+        UUID fresh = UUID.randomUUID();
+        UUID replayed = UUID.randomUUID();
+        when(processedEventRepository.insertNew("likes", List.of(fresh, replayed))).thenReturn(List.of(fresh));
+
+        assertEquals(Set.of(fresh), eventDeduplicator.claimAll("likes", List.of(fresh, replayed)));
+    }
+
+    @Test
+    void claim_WithoutEventId_ShouldAlwaysProcess() {
+        assertTrue(eventDeduplicator.claim("comments", null));
+        verifyNoInteractions(processedEventRepository);
+    }
+
+    @Test
+    void afterCommit_WithinTransaction_ShouldRunOnlyAfterCommit() {
+        AtomicBoolean applied = new AtomicBoolean();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            eventDeduplicator.afterCommit(() -> applied.set(true));
+
+            assertFalse(applied.get());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertTrue(applied.get());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void purgeExpired_ShouldDeleteIdsOlderThanWindow() {
+        ReflectionTestUtils.setField(eventDeduplicator, "dedupWindowSeconds", 3600L);
+        OffsetDateTime before = OffsetDateTime.now().minusSeconds(3600);
+
+        eventDeduplicator.purgeExpired();
+
+        ArgumentCaptor<OffsetDateTime> cutoff = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(processedEventRepository).deleteProcessedBefore(cutoff.capture());
+        assertFalse(cutoff.getValue().isBefore(before));
+    }
+}
@@ -0,0 +1,103 @@
+package faang.school.postservice.kafka.consumer;
+
+import faang.school.postservice.kafka.event.FeedUpdateEvent;
+import faang.school.postservice.model.Post;
+import faang.school.postservice.repository.PostRepository;
+import faang.school.postservice.service.feed.UserFeedZSetService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaFeedUpdateConsumerTest {
+
+    @Mock
+    private PostRepository postRepository;
+    @Mock
+    private UserFeedZSetService userFeedZSetService;
+    @Mock
+    private KafkaConsumerMetrics kafkaConsumerMetrics;
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    @InjectMocks
+    private KafkaFeedUpdateConsumer kafkaFeedUpdateConsumer;
+
+    private final LocalDateTime publishedAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Test
+    void handleFeedUpdate_ShouldAddPostToSubscriberFeedsInOneCall() {
+        when(postRepository.findById(1L)).thenReturn(Optional.of(Post.builder().id(1L).published(true).verified(true).publishedAt(publishedAt).build()));
+        FeedUpdateEvent event = FeedUpdateEvent.builder()
+                .postId(1L)
+                .authorId(2L)
+                .subscriberIds(new long[]{10L, 11L})
+                .publishedAt(publishedAt)
+                .build();
+
+        kafkaFeedUpdateConsumer.handleFeedUpdate(event, acknowledgment);
+
+        verify(userFeedZSetService).addPostToFeeds(new long[]{10L, 11L}, 1L, publishedAt);
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void handleFeedUpdate_WithAuthorTimelineEvent_ShouldWriteAuthorTimeline() {
+        when(postRepository.findById(1L)).thenReturn(Optional.of(Post.builder().id(1L).published(true).verified(true).publishedAt(publishedAt).build()));
+        FeedUpdateEvent event = FeedUpdateEvent.builder()
+                .postId(1L)
+                .authorId(2L)
+                .subscriberIds(new long[0])
+                .publishedAt(publishedAt)
+                .authorTimeline(true)
+                .build();
+
+        kafkaFeedUpdateConsumer.handleFeedUpdate(event, acknowledgment);
+
+        verify(userFeedZSetService).addPostToTimeline(2L, 1L, publishedAt);
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void handleFeedUpdate_WithoutEventTimestamp_ShouldScoreByPostPublishedAt() {
+        when(postRepository.findById(1L)).thenReturn(Optional.of(Post.builder().id(1L).published(true).verified(true).publishedAt(publishedAt).build()));
+        FeedUpdateEvent event = FeedUpdateEvent.builder().postId(1L).subscriberIds(new long[]{10L}).build();
+
+        kafkaFeedUpdateConsumer.handleFeedUpdate(event, acknowledgment);
+
+        verify(userFeedZSetService).addPostToFeeds(new long[]{10L}, 1L, publishedAt);
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void handleFeedUpdate_WithUnverifiedPost_ShouldSkipFeeds() {
+        when(postRepository.findById(1L)).thenReturn(Optional.of(Post.builder().id(1L).verified(false).build()));
+        FeedUpdateEvent event = FeedUpdateEvent.builder().postId(1L).subscriberIds(new long[]{10L}).build();
+
+        kafkaFeedUpdateConsumer.handleFeedUpdate(event, acknowledgment);
+
+        verifyNoInteractions(userFeedZSetService);
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void handleFeedUpdateDlt_ShouldCountAndAcknowledge() {
+        FeedUpdateEvent event = FeedUpdateEvent.builder().postId(1L).build();
+
+        kafkaFeedUpdateConsumer.handleFeedUpdateDlt(event, "feed-updates-dlt", acknowledgment);
+
+        verify(kafkaConsumerMetrics).recordDeadLetter("feed-updates-dlt");
+        verify(acknowledgment).acknowledge();
+        verifyNoInteractions(userFeedZSetService);
+    }
+}
@@ -0,0 +1,166 @@
+package faang.school.postservice.kafka.consumer;
+
+import faang.school.postservice.kafka.event.NewLikeEvent;
+import faang.school.postservice.model.LikeType;
+import faang.school.postservice.repository.PostRepository;
+import faang.school.postservice.service.cash.PostCounterCache;
+import org.apache.kafka.common.KafkaException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaLikeConsumerTest {
+
+    @Mock
+    private PostRepository postRepository;
+    @Mock
+    private PostCounterCache postCounterCache;
+    @Mock
+    private EventDeduplicator eventDeduplicator;
+    @Mock
+    private Acknowledgment acknowledgment;
+    @Spy
+    private CounterEventWindow counterEventWindow = new CounterEventWindow(300, 240);
+
+    @InjectMocks
+    private KafkaLikeConsumer kafkaLikeConsumer;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(eventDeduplicator).afterCommit(any());
+    }
+
+    @Test
+    void handleNewLikes_ShouldApplyOneNetDeltaPerPost() {
+        List<NewLikeEvent> events = List.of(
+                like(1L, LikeType.LIKE),
+                like(1L, LikeType.LIKE),
+                like(2L, LikeType.LIKE),
+                like(1L, LikeType.UNLIKE),
+                like(2L, LikeType.UNLIKE));
+
+        kafkaLikeConsumer.handleNewLikes(events, acknowledgment);
+
+        verify(postRepository).addLikesCount(1L, 1L);
+        verify(postCounterCache).incrementLikes(1L, 1L);
+        verify(postRepository, never()).addLikesCount(eq(2L), anyLong());
+        verify(postCounterCache, never()).incrementLikes(eq(2L), anyLong());
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void handleNewLikes_WithInvalidEvent_ShouldApplyPrecedingLikesAndPointAtPoisonRecord() {
+        List<NewLikeEvent> events = List.of(
+                like(1L, LikeType.LIKE),
+                like(null, LikeType.LIKE),
+                like(2L, LikeType.LIKE));
+
+        BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class,
+                () -> kafkaLikeConsumer.handleNewLikes(events, acknowledgment));
+
+        assertEquals(1, exception.getIndex());
+        verify(postRepository).addLikesCount(1L, 1L);
+        verify(postCounterCache).incrementLikes(1L, 1L);
+        verify(postRepository, never()).addLikesCount(eq(2L), anyLong());
+        verifyNoInteractions(acknowledgment);
+    }
+
+    @Test
+    void handleNewLikes_WithInvalidFirstEvent_ShouldApplyNothing() {
+        List<NewLikeEvent> events = List.of(like(null, LikeType.LIKE), like(2L, LikeType.LIKE));
+
+        BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class,
+                () -> kafkaLikeConsumer.handleNewLikes(events, acknowledgment));
+
+        assertEquals(0, exception.getIndex());
+        verifyNoInteractions(postRepository, postCounterCache, eventDeduplicator, acknowledgment);
+    }
+
+    @Test
+    void handleNewLikes_ShouldSkipReplayedAndRepeatedEvents() {
+        UUID fresh = UUID.randomUUID();
+        UUID replayed = UUID.randomUUID();
+        List<NewLikeEvent> events = List.of(
+                like(1L, LikeType.LIKE, fresh),
+                like(1L, LikeType.LIKE, fresh),
+                like(2L, LikeType.LIKE, replayed));
+        when(eventDeduplicator.claimAll("likes", List.of(fresh, replayed))).thenReturn(Set.of(fresh));
+
+        kafkaLikeConsumer.handleNewLikes(events, acknowledgment);
+
+        verify(postRepository).addLikesCount(1L, 1L);
+        verify(postRepository, never()).addLikesCount(eq(2L), anyLong());
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void handleNewLikes_WhenUpdateFails_ShouldNotTouchRedisOrAcknowledge() {
+        UUID eventId = UUID.randomUUID();
+        when(eventDeduplicator.claimAll("likes", List.of(eventId))).thenReturn(Set.of(eventId));
+        doThrow(new RuntimeException("db down")).when(postRepository).addLikesCount(1L, 1L);
+
+        assertThrows(KafkaException.class,
+                () -> kafkaLikeConsumer.handleNewLikes(List.of(like(1L, LikeType.LIKE, eventId)), acknowledgment));
+
+        verify(eventDeduplicator, never()).afterCommit(any());
+        verifyNoInteractions(postCounterCache);
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    void handleNewLikes_ShouldLeaveEventsOlderThanReconciliationWindowToReconciler() {
+        UUID late = UUID.randomUUID();
+        UUID recent = UUID.randomUUID();
+        List<NewLikeEvent> events = List.of(
+                like(1L, LikeType.LIKE, late, LocalDateTime.now().minusMinutes(10)),
+                like(2L, LikeType.LIKE, recent, LocalDateTime.now()));
+        when(eventDeduplicator.claimAll("likes", List.of(late, recent))).thenReturn(Set.of(late, recent));
+
+        kafkaLikeConsumer.handleNewLikes(events, acknowledgment);
+
+        verify(postRepository, never()).addLikesCount(eq(1L), anyLong());
+        verify(postCounterCache, never()).incrementLikes(eq(1L), anyLong());
+        verify(postRepository).addLikesCount(2L, 1L);
+        verify(acknowledgment).acknowledge();
+    }
+
+    private NewLikeEvent like(Long postId, LikeType type, UUID eventId, LocalDateTime createdAt) {
+        return NewLikeEvent.builder().eventId(eventId).postId(postId).userId(10L).type(type).createdAt(createdAt).build();
+    }
+
+    private NewLikeEvent like(Long postId, LikeType type, UUID eventId) {
+        return NewLikeEvent.builder().eventId(eventId).postId(postId).userId(10L).type(type).build();
+    }
+
+    private NewLikeEvent like(Long postId, LikeType type) {
+        return NewLikeEvent.builder().postId(postId).userId(10L).type(type).build();
+    }
+}
@@ -43,24 +43,24 @@ class KafkaCommentProducerTest {
     @Test
     void sendCommentEvent_WhenSuccessful_ShouldSendMessage() {
         CompletableFuture<SendResult<String, Object>> future = new CompletableFuture<>();
-        when(kafkaTemplate.send(anyString(), eq(testEvent)))
+        when(kafkaTemplate.send(anyString(), anyString(), eq(testEvent)))
                 .thenReturn(future);
 
         kafkaCommentProducer.sendCommentEvent(testEvent);
 
-        verify(kafkaTemplate).send("new-comments", testEvent);
+        verify(kafkaTemplate).send("new-comments", "1", testEvent);
     }
 
     @Test
     void sendCommentEvent_WhenKafkaFails_ShouldThrowException() {
         RuntimeException testException = new RuntimeException("Kafka error");
-        when(kafkaTemplate.send(anyString(), eq(testEvent)))
+        when(kafkaTemplate.send(anyString(), anyString(), eq(testEvent)))
                 .thenThrow(testException);
 
         assertThrows(RuntimeException.class, () ->
                 kafkaCommentProducer.sendCommentEvent(testEvent)
         );
-        verify(kafkaTemplate).send("new-comments", testEvent);
+        verify(kafkaTemplate).send("new-comments", "1", testEvent);
     }
 
     @Test
@@ -76,11 +76,11 @@ class KafkaCommentProducerTest {
     @Test
     void sendCommentEvent_ShouldUseCorrectTopic() {
         CompletableFuture<SendResult<String, Object>> future = new CompletableFuture<>();
-        when(kafkaTemplate.send(anyString(), eq(testEvent)))
+        when(kafkaTemplate.send(anyString(), anyString(), eq(testEvent)))
                 .thenReturn(future);
 
         kafkaCommentProducer.sendCommentEvent(testEvent);
 
-        verify(kafkaTemplate).send(eq("new-comments"), any());
+        verify(kafkaTemplate).send(eq("new-comments"), eq("1"), any());
     }
 }
\ No newline at end of file
@@ -42,24 +42,24 @@ class KafkaLikeProducerTest {
     @Test
     void sendLikeEvent_WhenSuccessful_ShouldSendMessage() {
         CompletableFuture<SendResult<String, Object>> future = new CompletableFuture<>();
-        when(kafkaTemplate.send(anyString(), eq(testEvent)))
+        when(kafkaTemplate.send(anyString(), anyString(), eq(testEvent)))
                 .thenReturn(future);
 
         kafkaLikeProducer.sendLikeEvent(testEvent);
 
-        verify(kafkaTemplate).send("new-likes", testEvent);
+        verify(kafkaTemplate).send("new-likes", "1", testEvent);
     }
 
     @Test
     void sendLikeEvent_WhenKafkaFails_ShouldThrowException() {
         RuntimeException testException = new RuntimeException("Kafka error");
-        when(kafkaTemplate.send(anyString(), eq(testEvent)))
+        when(kafkaTemplate.send(anyString(), anyString(), eq(testEvent)))
                 .thenThrow(testException);
 
         assertThrows(RuntimeException.class, () ->
                 kafkaLikeProducer.sendLikeEvent(testEvent)
         );
-        verify(kafkaTemplate).send("new-likes", testEvent);
+        verify(kafkaTemplate).send("new-likes", "1", testEvent);
     }
 
     @Test
@@ -75,11 +75,11 @@ class KafkaLikeProducerTest {
     @Test
     void sendLikeEvent_ShouldUseCorrectTopic() {
         CompletableFuture<SendResult<String, Object>> future = new CompletableFuture<>();
-        when(kafkaTemplate.send(anyString(), eq(testEvent)))
+        when(kafkaTemplate.send(anyString(), anyString(), eq(testEvent)))
                 .thenReturn(future);
 
         kafkaLikeProducer.sendLikeEvent(testEvent);
 
-        verify(kafkaTemplate).send(eq("new-likes"), any());
+        verify(kafkaTemplate).send(eq("new-likes"), eq("1"), any());
     }
 }
\ No newline at end of file
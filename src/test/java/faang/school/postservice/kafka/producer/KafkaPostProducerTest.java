@@ -1,8 +1,10 @@
 package faang.school.postservice.kafka.producer;
 
-import faang.school.postservice.client.UserServiceClient;
+import faang.school.postservice.dto.user.SubscriberIdsPage;
 import faang.school.postservice.kafka.event.FeedUpdateEvent;
 import faang.school.postservice.kafka.event.NewPostEvent;
+import faang.school.postservice.service.feed.FeedFanOutPolicy;
+import faang.school.postservice.service.subscription.SubscriptionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,18 +17,22 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.test.util.ReflectionTestUtils;
 
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -38,7 +44,10 @@ class KafkaPostProducerTest {
     private KafkaTemplate<String, Object> kafkaTemplate;
 
     @Mock
-    private UserServiceClient userServiceClient;
+    private SubscriptionService subscriptionService;
+
+    @Mock
+    private FeedFanOutPolicy feedFanOutPolicy;
 
     @InjectMocks
     private KafkaPostProducer kafkaPostProducer;
@@ -59,21 +68,23 @@ class KafkaPostProducerTest {
                 .build();
 
         CompletableFuture<SendResult<String, Object>> future = new CompletableFuture<>();
-        doReturn(future).when(kafkaTemplate).send(any(), any());
+        lenient().doReturn(future).when(kafkaTemplate).send(any(), any());
+        lenient().doReturn(future).when(kafkaTemplate).send(any(), any(), any());
     }
 
     @Test
     void sendPostCreatedEvent_WithAuthorAndSubscribers_ShouldSendAllEvents() {
-        List<Long> subscribers = Arrays.asList(1L, 2L, 3L);
-        when(userServiceClient.getUserSubscribersIds(testPostEvent.getAuthorId()))
-                .thenReturn(subscribers);
+        when(subscriptionService.getUserSubscriberPage(testPostEvent.getAuthorId(), null, 2))
+                .thenReturn(page(2L, 3L, 1L, 2L));
+        when(subscriptionService.getUserSubscriberPage(testPostEvent.getAuthorId(), 2L, 2))
+                .thenReturn(page(null, null, 3L));
 
         kafkaPostProducer.sendPostCreatedEvent(testPostEvent);
 
-        verify(kafkaTemplate).send("new-posts", testPostEvent);
+        verify(kafkaTemplate).send("new-posts", "1", testPostEvent);
         verify(kafkaTemplate, times(2)).send(eq("feed-updates"), any(FeedUpdateEvent.class));
 
-        verify(kafkaTemplate, times(3)).send(anyString(), any()); // 1 post event + 2 feed batches
+        verify(kafkaTemplate, times(2)).send(anyString(), any()); // only post events are keyed
     }
 
     @Test
@@ -83,30 +94,29 @@ class KafkaPostProducerTest {
                 .projectId(1L)
                 .build();
 
-        List<Long> subscribers = Arrays.asList(1L, 2L);
-        when(userServiceClient.getProjectSubscriptions(projectPost.getProjectId()))
-                .thenReturn(subscribers);
+        when(subscriptionService.getProjectSubscriberPage(projectPost.getProjectId(), null, 2))
+                .thenReturn(page(null, 2L, 1L, 2L));
 
         kafkaPostProducer.sendPostCreatedEvent(projectPost);
 
-        verify(userServiceClient).getProjectSubscriptions(projectPost.getProjectId());
-        verify(kafkaTemplate).send("new-posts", projectPost);
+        verify(subscriptionService).getProjectSubscriberPage(projectPost.getProjectId(), null, 2);
+        verify(kafkaTemplate).send("new-posts", "1", projectPost);
         verify(kafkaTemplate).send(eq("feed-updates"), feedEventCaptor.capture());
 
         FeedUpdateEvent capturedEvent = feedEventCaptor.getValue();
         assertEquals(projectPost.getPostId(), capturedEvent.getPostId());
-        assertEquals(subscribers, capturedEvent.getSubscriberIds());
+        assertArrayEquals(new long[]{1L, 2L}, capturedEvent.getSubscriberIds());
     }
 
     @Test
     void sendPostCreatedEvent_WithNoSubscribers_ShouldOnlySendPostEvent() {
-        when(userServiceClient.getUserSubscribersIds(testPostEvent.getAuthorId()))
-                .thenReturn(Collections.emptyList());
+        when(subscriptionService.getUserSubscriberPage(testPostEvent.getAuthorId(), null, 2))
+                .thenReturn(page(null, 0L));
 
         kafkaPostProducer.sendPostCreatedEvent(testPostEvent);
 
-        verify(kafkaTemplate).send("new-posts", testPostEvent);
-        verify(kafkaTemplate, times(1)).send(anyString(), any());
+        verify(kafkaTemplate).send("new-posts", "1", testPostEvent);
+        verify(kafkaTemplate, never()).send(anyString(), any());
     }
 
     @Test
@@ -117,14 +127,14 @@ class KafkaPostProducerTest {
 
         kafkaPostProducer.sendPostCreatedEvent(invalidPost);
 
-        verify(kafkaTemplate).send("new-posts", invalidPost);
-        verify(kafkaTemplate, times(1)).send(anyString(), any());
+        verify(kafkaTemplate).send("new-posts", "1", invalidPost);
+        verify(kafkaTemplate, never()).send(anyString(), any());
     }
 
     @Test
     void sendPostCreatedEvent_WhenKafkaFails_ShouldThrowException() {
         RuntimeException kafkaError = new RuntimeException("Kafka error");
-        when(kafkaTemplate.send("new-posts", testPostEvent))
+        when(kafkaTemplate.send("new-posts", "1", testPostEvent))
                 .thenThrow(kafkaError);
 
         assertThrows(RuntimeException.class, () ->
@@ -135,7 +145,7 @@ class KafkaPostProducerTest {
     @Test
     void sendPostCreatedEvent_WhenUserServiceFails_ShouldThrowException() {
         RuntimeException userServiceError = new RuntimeException("User service error");
-        when(userServiceClient.getUserSubscribersIds(anyLong()))
+        when(subscriptionService.getUserSubscriberPage(anyLong(), any(), anyInt()))
                 .thenThrow(userServiceError);
 
         assertThrows(RuntimeException.class, () ->
@@ -145,20 +155,35 @@ class KafkaPostProducerTest {
 
     @Test
     void sendPostCreatedEvent_WithLargeSubscriberList_ShouldProcessInBatches() {
-        List<Long> subscribers = Arrays.asList(1L, 2L, 3L, 4L, 5L);
-        when(userServiceClient.getUserSubscribersIds(testPostEvent.getAuthorId()))
-                .thenReturn(subscribers);
+        when(subscriptionService.getUserSubscriberPage(testPostEvent.getAuthorId(), null, 2))
+                .thenReturn(page(2L, 5L, 1L, 2L));
+        when(subscriptionService.getUserSubscriberPage(testPostEvent.getAuthorId(), 2L, 2))
+                .thenReturn(page(4L, null, 3L, 4L));
+        when(subscriptionService.getUserSubscriberPage(testPostEvent.getAuthorId(), 4L, 2))
+                .thenReturn(page(null, null, 5L));
 
-         kafkaPostProducer.sendPostCreatedEvent(testPostEvent);
+        kafkaPostProducer.sendPostCreatedEvent(testPostEvent);
 
         verify(kafkaTemplate, times(3)).send(eq("feed-updates"), feedEventCaptor.capture());
 
         List<FeedUpdateEvent> capturedEvents = feedEventCaptor.getAllValues();
         assertEquals(3, capturedEvents.size());
 
-        assertEquals(2, capturedEvents.get(0).getSubscriberIds().size());
-        assertEquals(2, capturedEvents.get(1).getSubscriberIds().size());
-        assertEquals(1, capturedEvents.get(2).getSubscriberIds().size());
+        assertArrayEquals(new long[]{1L, 2L}, capturedEvents.get(0).getSubscriberIds());
+        assertArrayEquals(new long[]{3L, 4L}, capturedEvents.get(1).getSubscriberIds());
+        assertArrayEquals(new long[]{5L}, capturedEvents.get(2).getSubscriberIds());
+    }
+
+    @Test
+    void sendPostCreatedEvent_WithSingleUnpagedList_ShouldSplitIntoBatches() {
+        when(subscriptionService.getUserSubscriberPage(testPostEvent.getAuthorId(), null, 2))
+                .thenReturn(page(null, 3L, 1L, 2L, 3L));
+
+        kafkaPostProducer.sendPostCreatedEvent(testPostEvent);
+
+        verify(kafkaTemplate, times(2)).send(eq("feed-updates"), feedEventCaptor.capture());
+        assertArrayEquals(new long[]{1L, 2L}, feedEventCaptor.getAllValues().get(0).getSubscriberIds());
+        assertArrayEquals(new long[]{3L}, feedEventCaptor.getAllValues().get(1).getSubscriberIds());
     }
 
     @Test
@@ -170,4 +195,44 @@ class KafkaPostProducerTest {
 
         assertEquals("Cannot invoke \"faang.school.postservice.kafka.event.NewPostEvent.getPostId()\" because \"event\" is null", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void sendPostCreatedEvent_WithCelebrityAuthor_ShouldSendSingleTimelineEvent() {
+        when(subscriptionService.getUserSubscriberPage(testPostEvent.getAuthorId(), null, 2))
+                .thenReturn(page(2L, 20_000L, 1L, 2L));
+        when(feedFanOutPolicy.isCelebrity(testPostEvent.getAuthorId(), 20_000L)).thenReturn(true);
+
+        kafkaPostProducer.sendPostCreatedEvent(testPostEvent);
+
+        verify(kafkaTemplate).send("new-posts", "1", testPostEvent);
+        verify(kafkaTemplate).send(eq("feed-updates"), feedEventCaptor.capture());
+        verify(subscriptionService, never()).getUserSubscriberPage(testPostEvent.getAuthorId(), 2L, 2);
+        assertTrue(feedEventCaptor.getValue().isAuthorTimeline());
+        assertEquals(0, feedEventCaptor.getValue().getSubscriberIds().length);
+    }
+
+    @Test
+    void sendPostCreatedEvent_ShouldCompleteOnlyAfterAllSendsAreAcknowledged() {
+        CompletableFuture<SendResult<String, Object>> postSend = new CompletableFuture<>();
+        CompletableFuture<SendResult<String, Object>> feedSend = new CompletableFuture<>();
+        doReturn(postSend).when(kafkaTemplate).send("new-posts", "1", testPostEvent);
+        doReturn(feedSend).when(kafkaTemplate).send(eq("feed-updates"), any(FeedUpdateEvent.class));
+        when(subscriptionService.getUserSubscriberPage(testPostEvent.getAuthorId(), null, 2))
+                .thenReturn(page(null, 1L, 1L));
+
+        CompletableFuture<Void> result = kafkaPostProducer.sendPostCreatedEvent(testPostEvent);
+
+        postSend.complete(null);
+        assertFalse(result.isDone());
+        feedSend.complete(null);
+        assertTrue(result.isDone());
+    }
+
+    private SubscriberIdsPage page(Long nextCursor, Long total, long... ids) {
+        return SubscriberIdsPage.builder()
+                .ids(ids)
+                .nextCursor(nextCursor)
+                .total(total)
+                .build();
+    }
+}
@@ -0,0 +1,206 @@
+package faang.school.postservice.kafka.producer;
+
+import faang.school.postservice.kafka.event.NewPostEvent;
+import faang.school.postservice.model.PostOutboxEvent;
+import faang.school.postservice.model.PostOutboxStatus;
+import faang.school.postservice.repository.PostOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostOutboxRelayTest {
+
+    @Mock
+    private PostOutboxRepository postOutboxRepository;
+
+    @Mock
+    private KafkaPostProducer kafkaPostProducer;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private PostOutboxRelay postOutboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(postOutboxRelay, "batchSize", 10);
+        ReflectionTestUtils.setField(postOutboxRelay, "sendTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(postOutboxRelay, "claimTimeoutMs", 60000L);
+        ReflectionTestUtils.setField(postOutboxRelay, "maxAttempts", 3);
+        ReflectionTestUtils.setField(postOutboxRelay, "retryDelayMs", 1000L);
+        ReflectionTestUtils.setField(postOutboxRelay, "maxRetryDelayMs", 60000L);
+    }
+
+    @Test
+    void relay_WhenAllSendsSucceed_ShouldDeleteWholeBatch() {
+        List<PostOutboxEvent> batch = List.of(outboxEvent(1L, 10L), outboxEvent(2L, 20L));
+        claim(batch);
+        runCompletion();
+        when(kafkaPostProducer.sendPostCreatedEvent(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        postOutboxRelay.relay();
+
+        ArgumentCaptor<NewPostEvent> eventCaptor = ArgumentCaptor.forClass(NewPostEvent.class);
+        verify(kafkaPostProducer, times(2)).sendPostCreatedEvent(eventCaptor.capture());
+        assertEquals(10L, eventCaptor.getAllValues().get(0).getPostId());
+        assertEquals(20L, eventCaptor.getAllValues().get(1).getPostId());
+        verify(postOutboxRepository).deleteAllInBatch(batch);
+        verify(postOutboxRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void relay_ShouldClaimRowsBeforeSending() {
+        PostOutboxEvent event = outboxEvent(1L, 10L);
+        LocalDateTime before = LocalDateTime.now();
+        claim(List.of(event));
+        runCompletion();
+        when(kafkaPostProducer.sendPostCreatedEvent(any())).thenAnswer(invocation -> {
+            assertTrue(event.getNextAttemptAt().isAfter(before.plusSeconds(30)));
+            return CompletableFuture.completedFuture(null);
+        });
+
+        postOutboxRelay.relay();
+
+        verify(postOutboxRepository).deleteAllInBatch(List.of(event));
+    }
+
+    @Test
+    void relay_WhenSendFails_ShouldRescheduleFailedRowAndContinue() {
+        PostOutboxEvent first = outboxEvent(1L, 10L);
+        PostOutboxEvent second = outboxEvent(2L, 20L);
+        PostOutboxEvent third = outboxEvent(3L, 30L);
+        claim(List.of(first, second, third));
+        runCompletion();
+        when(kafkaPostProducer.sendPostCreatedEvent(any()))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        LocalDateTime before = LocalDateTime.now();
+
+        postOutboxRelay.relay();
+
+        verify(kafkaPostProducer, times(3)).sendPostCreatedEvent(any());
+        verify(postOutboxRepository).deleteAllInBatch(List.of(first, third));
+        verify(postOutboxRepository).saveAll(List.of(second));
+        assertEquals(1, second.getAttempts());
+        assertEquals(PostOutboxStatus.PENDING, second.getStatus());
+        assertTrue(second.getNextAttemptAt().isBefore(before.plusSeconds(30)));
+    }
+
+    @Test
+    void relay_ShouldSendWholeBatchBeforeWaitingAndRescheduleOnlyUnconfirmedRows() {
+        ReflectionTestUtils.setField(postOutboxRelay, "sendTimeoutMs", 100L);
+        PostOutboxEvent stuck = outboxEvent(1L, 10L);
+        PostOutboxEvent confirmed = outboxEvent(2L, 20L);
+        claim(List.of(stuck, confirmed));
+        runCompletion();
+        when(kafkaPostProducer.sendPostCreatedEvent(any()))
+                .thenReturn(new CompletableFuture<>())
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        postOutboxRelay.relay();
+
+        verify(kafkaPostProducer, times(2)).sendPostCreatedEvent(any());
+        verify(postOutboxRepository).deleteAllInBatch(List.of(confirmed));
+        verify(postOutboxRepository).saveAll(List.of(stuck));
+        assertEquals(1, stuck.getAttempts());
+    }
+
+    @Test
+    void relay_WhenProducerThrows_ShouldRescheduleRowAndSendTheRest() {
+        PostOutboxEvent broken = outboxEvent(1L, 10L);
+        PostOutboxEvent healthy = outboxEvent(2L, 20L);
+        claim(List.of(broken, healthy));
+        runCompletion();
+        when(kafkaPostProducer.sendPostCreatedEvent(any()))
+                .thenThrow(new IllegalStateException("serialization failed"))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        postOutboxRelay.relay();
+
+        verify(postOutboxRepository).deleteAllInBatch(List.of(healthy));
+        verify(postOutboxRepository).saveAll(List.of(broken));
+    }
+
+    @Test
+    void relay_WhenAttemptsExhausted_ShouldMoveRowToDead() {
+        PostOutboxEvent event = outboxEvent(1L, 10L);
+        event.setAttempts(2);
+        claim(List.of(event));
+        runCompletion();
+        when(kafkaPostProducer.sendPostCreatedEvent(any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        postOutboxRelay.relay();
+
+        verify(postOutboxRepository, never()).deleteAllInBatch(any());
+        // один раз при захвате и один раз при переводе в DEAD
+        verify(postOutboxRepository, times(2)).saveAll(List.of(event));
+        assertEquals(3, event.getAttempts());
+        assertEquals(PostOutboxStatus.DEAD, event.getStatus());
+    }
+
+    @Test
+    void relay_WhenOutboxIsEmpty_ShouldDoNothing() {
+        claim(List.of());
+
+        postOutboxRelay.relay();
+
+        verify(kafkaPostProducer, never()).sendPostCreatedEvent(any());
+        verify(postOutboxRepository, never()).deleteAllInBatch(any());
+        verify(transactionTemplate, never()).executeWithoutResult(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void claim(List<PostOutboxEvent> batch) {
+        when(transactionTemplate.execute(any(TransactionCallback.class))).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+        when(postOutboxRepository.lockNextBatch(10)).thenReturn(batch);
+        if (!batch.isEmpty()) {
+            when(postOutboxRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runCompletion() {
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> callback = invocation.getArgument(0);
+            callback.accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any(Consumer.class));
+    }
+
+    private PostOutboxEvent outboxEvent(Long id, Long postId) {
+        return PostOutboxEvent.builder()
+                .id(id)
+                .postId(postId)
+                .authorId(5L)
+                .build();
+    }
+}
@@ -0,0 +1,147 @@
+package faang.school.postservice.kafka.serde;
+
+import faang.school.postservice.kafka.event.FeedUpdateEvent;
+import faang.school.postservice.kafka.event.NewCommentEvent;
+import faang.school.postservice.kafka.event.NewLikeEvent;
+import faang.school.postservice.kafka.event.NewPostEvent;
+import faang.school.postservice.model.LikeType;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FeedEventCodecTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_789);
+
+    private final FeedEventSerializer serializer = new FeedEventSerializer();
+    private final FeedEventDeserializer deserializer = new FeedEventDeserializer();
+
+    @Test
+    void roundTrip_FeedUpdateEvent_ShouldKeepSubscriberOrder() {
+        FeedUpdateEvent event = FeedUpdateEvent.builder()
+                .postId(10L)
+                .authorId(5L)
+                .subscriberIds(new long[]{300L, 7L, 1_000_000_000_000L, 8L})
+                .publishedAt(NOW)
+                .authorTimeline(true)
+                .build();
+
+        assertEquals(event, roundTrip(event));
+    }
+
+    @Test
+    void roundTrip_NewPostEvent_ShouldKeepNullFieldsAndUnicodeContent() {
+        NewPostEvent event = NewPostEvent.builder()
+                .postId(1L)
+                .projectId(2L)
+                .content("Привет, мир 👋")
+                .publishedAt(NOW)
+                .build();
+
+        assertEquals(event, roundTrip(event));
+    }
+
+    @Test
+    void roundTrip_NewLikeAndCommentEvents() {
+        NewLikeEvent like = NewLikeEvent.builder()
+                .eventId(UUID.randomUUID())
+                .postId(1L)
+                .userId(-3L)
+                .createdAt(NOW)
+                .type(LikeType.UNLIKE)
+                .build();
+        NewCommentEvent comment = NewCommentEvent.builder()
+                .eventId(UUID.randomUUID())
+                .id(4L)
+                .postId(1L)
+                .authorId(2L)
+                .content("comment")
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .verified(true)
+                .build();
+
+        assertEquals(like, roundTrip(like));
+        assertEquals(comment, roundTrip(comment));
+    }
+
+    @Test
+    void commentApprovalFlagSurvivesRoundTrip() {
+        NewCommentEvent approval = NewCommentEvent.approvalOf(4L, 1L, 2L, "comment", NOW);
+
+        assertEquals(approval, roundTrip(approval));
+    }
+
+    @Test
+    void serialize_FeedUpdateEvent_ShouldBeSmallerThanJson() {
+        FeedUpdateEvent event = FeedUpdateEvent.builder()
+                .postId(10L)
+                .authorId(5L)
+                .subscriberIds(new long[]{1_000_001L, 1_000_002L, 1_000_005L, 1_000_010L})
+                .publishedAt(NOW)
+                .build();
+
+        byte[] binary = serializer.serialize("feed-updates", event);
+        byte[] json = new JsonSerializer<>().serialize("feed-updates", event);
+
+        assertTrue(binary.length * 3 < json.length);
+    }
+
+    @Test
+    void deserialize_JsonPayload_ShouldFallBackToJsonDeserializer() {
+        NewLikeEvent event = NewLikeEvent.builder()
+                .postId(1L)
+                .userId(2L)
+                .type(LikeType.LIKE)
+                .build();
+        RecordHeaders headers = new RecordHeaders();
+        byte[] json = new JsonSerializer<>().serialize("new-likes", headers, event);
+
+        assertEquals(event, deserializer.deserialize("new-likes", headers, json));
+    }
+
+    @Test
+    void serialize_InJsonMode_ShouldWriteJsonAndPassRawBytesThrough() {
+        FeedEventSerializer jsonSerializer = new FeedEventSerializer(false);
+        NewLikeEvent event = NewLikeEvent.builder()
+                .postId(1L)
+                .userId(2L)
+                .type(LikeType.LIKE)
+                .build();
+        RecordHeaders headers = new RecordHeaders();
+        byte[] poison = {0x7b, 0x00, (byte) 0xff};
+
+        byte[] json = jsonSerializer.serialize("new-likes", headers, event);
+
+        assertEquals(event, deserializer.deserialize("new-likes", headers, json));
+        assertArrayEquals(poison, jsonSerializer.serialize("new-likes-dlt", new RecordHeaders(), poison));
+    }
+
+    @Test
+    void decode_TruncatedPayload_ShouldThrow() {
+        byte[] data = serializer.serialize("new-posts", NewPostEvent.builder().postId(1L).content("text").build());
+        byte[] truncated = Arrays.copyOf(data, data.length - 2);
+
+        assertThrows(IllegalArgumentException.class, () -> FeedEventCodec.decode(truncated));
+    }
+
+    @Test
+    void decode_OversizedIdListLength_ShouldThrowInsteadOfAllocating() {
+        // тег NEW_POST, маска только с followerIds, длина списка Integer.MAX_VALUE без самих id
+        byte[] data = {FeedEventCodec.NEW_POST, 1 << 5, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+
+        assertThrows(IllegalArgumentException.class, () -> FeedEventCodec.decode(data));
+    }
+
+    private Object roundTrip(Object event) {
+        return deserializer.deserialize("topic", serializer.serialize("topic", event));
+    }
+}
@@ -0,0 +1,47 @@
+package faang.school.postservice.repository.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import faang.school.postservice.dto.post.PostVisibility;
+import faang.school.postservice.redis.entities.CommentCache;
+import faang.school.postservice.redis.entities.PostCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SmilePostCacheStoreTest {
+
+    private final ObjectMapper smileMapper = SmilePostCacheStore.createSmileMapper();
+
+    @Test
+    void smileMapper_ShouldRoundTripPostWithComments() throws Exception {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+        CommentCache comment = CommentCache.builder()
+                .id(10L)
+                .postId(1L)
+                .authorId(2L)
+                .content("Test comment")
+                .createdAt(now)
+                .build();
+        PostCache post = PostCache.builder()
+                .id(1L)
+                .authorId(2L)
+                .content("Test content")
+                .likesCount(5L)
+                .commentsCount(1L)
+                .createdAt(now)
+                .publishedAt(now)
+                .verified(true)
+                .published(true)
+                .visibility(PostVisibility.PUBLIC)
+                .lastComments(new LinkedHashSet<>(List.of(comment)))
+                .build();
+
+        PostCache restored = smileMapper.readValue(smileMapper.writeValueAsBytes(post), PostCache.class);
+
+        assertEquals(post, restored);
+    }
+}
@@ -0,0 +1,90 @@
+package faang.school.postservice.scheduler.counter;
+
+import faang.school.postservice.service.post.PostCounterReconciliationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostCounterReconciliationSchedulerTest {
+
+    @Mock
+    private PostCounterReconciliationService reconciliationService;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @InjectMocks
+    private PostCounterReconciliationScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(scheduler, "chunkSize", 100L);
+        ReflectionTestUtils.setField(scheduler, "settleSeconds", 300L);
+        ReflectionTestUtils.setField(scheduler, "lockTtlSeconds", 60L);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void reconcileNextChunk_ShouldReleaseOnlyOwnLock() {
+        ArgumentCaptor<String> tokenCaptor = ArgumentCaptor.forClass(String.class);
+        when(valueOperations.setIfAbsent(eq(PostCounterReconciliationScheduler.LOCK_KEY), tokenCaptor.capture(),
+                eq(Duration.ofSeconds(60)))).thenReturn(true);
+        when(valueOperations.get(PostCounterReconciliationScheduler.CHECKPOINT_KEY)).thenReturn("100");
+        when(reconciliationService.getMaxPostId()).thenReturn(500L);
+        when(reconciliationService.reconcileRange(eq(100L), eq(200L), any())).thenReturn(List.of());
+
+        scheduler.reconcileNextChunk();
+
+        verify(valueOperations).set(PostCounterReconciliationScheduler.CHECKPOINT_KEY, "200");
+        verify(redisTemplate).execute(PostCounterReconciliationScheduler.LOCK_RELEASE_SCRIPT,
+                List.of(PostCounterReconciliationScheduler.LOCK_KEY), tokenCaptor.getValue());
+        verify(redisTemplate, never()).delete(anyString());
+    }
+
+    @Test
+    void reconcileNextChunk_WhenLockIsHeld_ShouldSkipRun() {
+        when(valueOperations.setIfAbsent(eq(PostCounterReconciliationScheduler.LOCK_KEY), anyString(), any()))
+                .thenReturn(false);
+
+        scheduler.reconcileNextChunk();
+
+        verify(reconciliationService, never()).reconcileRange(anyLong(), anyLong(), any());
+        verify(redisTemplate, never()).execute(eq(PostCounterReconciliationScheduler.LOCK_RELEASE_SCRIPT),
+                anyList(), anyString());
+    }
+
+    @Test
+    void reconcileNextChunk_WhenRunFails_ShouldStillReleaseLock() {
+        ArgumentCaptor<String> tokenCaptor = ArgumentCaptor.forClass(String.class);
+        when(valueOperations.setIfAbsent(eq(PostCounterReconciliationScheduler.LOCK_KEY), tokenCaptor.capture(),
+                eq(Duration.ofSeconds(60)))).thenReturn(true);
+        when(reconciliationService.getMaxPostId()).thenThrow(new IllegalStateException("db down"));
+
+        scheduler.reconcileNextChunk();
+
+        verify(valueOperations, never()).set(anyString(), anyString());
+        verify(redisTemplate).execute(PostCounterReconciliationScheduler.LOCK_RELEASE_SCRIPT,
+                List.of(PostCounterReconciliationScheduler.LOCK_KEY), tokenCaptor.getValue());
+    }
+}
@@ -4,14 +4,16 @@ import com.google.common.collect.Sets;
 import faang.school.postservice.client.UserServiceClient;
 import faang.school.postservice.config.context.UserContext;
 import faang.school.postservice.dto.post.PostVisibility;
+import faang.school.postservice.dto.user.SubscriberIdsPage;
 import faang.school.postservice.dto.user.UserDto;
 import faang.school.postservice.mapper.post.PostMapper;
 import faang.school.postservice.model.Post;
 import faang.school.postservice.redis.entities.PostCache;
 import faang.school.postservice.redis.entities.UserCache;
 import faang.school.postservice.repository.PostRepository;
-import faang.school.postservice.repository.redis.PostCacheRepository;
+import faang.school.postservice.repository.redis.PostCacheStore;
 import faang.school.postservice.repository.redis.UserCacheRepository;
+import faang.school.postservice.service.feed.FeedFanOutPolicy;
 import faang.school.postservice.service.feed.UserFeedZSetService;
 import faang.school.postservice.service.subscription.SubscriptionService;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,26 +24,31 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.stubbing.Answer;
 import org.mockito.quality.Strictness;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.anyLong;
-import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -56,12 +63,14 @@ class CacheWarmerServiceTest {
     @Mock
     private UserServiceClient userServiceClient;
     @Mock
-    private PostCacheRepository postCacheRepository;
+    private PostCacheStore postCacheStore;
     @Mock
     private UserCacheRepository userCacheRepository;
     @Mock
     private UserFeedZSetService userFeedZSetService;
     @Mock
+    private FeedFanOutPolicy feedFanOutPolicy;
+    @Mock
     private UserContext userContext;
     @Mock
     private SubscriptionService subscriptionService;
@@ -69,6 +78,8 @@ class CacheWarmerServiceTest {
     private CommentCacheService commentCacheService;
     @Mock
     private PostMapper postMapper;
+    @Mock
+    private PostCounterCache postCounterCache;
 
     @InjectMocks
     private CacheWarmerService cacheWarmerService;
@@ -142,7 +153,8 @@ class CacheWarmerServiceTest {
         when(commentCacheService.fetchLatestComments(anyLong()))
                 .thenReturn(new LinkedHashSet<>());
         ReflectionTestUtils.invokeMethod(cacheWarmerService, "warmUpPosts", activeAuthors);
-        verify(postCacheRepository, times(2)).save(any(PostCache.class));
+        verify(postCacheStore, times(2)).save(any(PostCache.class));
+        verify(postCounterCache, times(2)).seed(any(PostCache.class));
         verify(commentCacheService, times(2)).fetchLatestComments(anyLong());
     }
 
@@ -153,12 +165,43 @@ class CacheWarmerServiceTest {
                 .thenReturn(Collections.singletonList(testPost));
         when(postRepository.findByPublishedAndNotDeletedAndProjectIdOrderCreatedAtDesc(anyLong()))
                 .thenReturn(Collections.singletonList(testPost));
-        when(userServiceClient.getUserSubscribersIds(anyLong()))
-                .thenReturn(Arrays.asList(1L, 2L));
-        when(userServiceClient.getProjectSubscriptions(anyLong()))
-                .thenReturn(Arrays.asList(1L, 2L));
+        when(subscriptionService.forEachUserSubscriberChunk(anyLong(), any(), anyInt(), any()))
+                .thenAnswer(subscriberChunk(3));
+        when(subscriptionService.forEachProjectSubscriberChunk(anyLong(), anyInt(), any()))
+                .thenAnswer(subscriberChunk(2));
         ReflectionTestUtils.invokeMethod(cacheWarmerService, "warmUpFeeds", activeAuthors, activeProjects);
-        verify(userFeedZSetService, atLeast(4)).addPostToFeed(anyLong(), anyLong(), any(LocalDateTime.class));
+        verify(userFeedZSetService, times(4)).addPostToFeeds(any(long[].class), anyLong(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Warm up feeds should put celebrity posts on the author timeline instead of fanning out")
+    void warmUpFeeds_WithCelebrityAuthor_ShouldWriteTimelineOnly() {
+        when(postRepository.findByPublishedAndNotDeletedAndAuthorIdOrderCreatedAtDesc(1L))
+                .thenReturn(Collections.singletonList(testPost));
+        when(subscriptionService.getUserSubscriberPage(eq(1L), isNull(), anyInt()))
+                .thenReturn(SubscriberIdsPage.builder().ids(new long[]{2L}).nextCursor(2L).total(50_000L).build());
+        when(feedFanOutPolicy.isCelebrity(1L, 50_000L)).thenReturn(true);
+        ReflectionTestUtils.invokeMethod(cacheWarmerService, "warmUpFeeds", Set.of(1L), Set.of());
+        verify(userFeedZSetService).addPostToTimeline(1L, testPost.getId(), testPost.getPublishedAt());
+        verify(subscriptionService, never()).forEachUserSubscriberChunk(anyLong(), any(), anyInt(), any());
+        verify(userFeedZSetService, never()).addPostToFeeds(any(long[].class), anyLong(), any(LocalDateTime.class));
+        verify(userFeedZSetService, never()).removeCelebrity(anyLong());
+    }
+
+    @Test
+    @DisplayName("Warm up feeds should fan out from the first subscriber page it counted instead of fetching it again")
+    void warmUpFeeds_WithRegularAuthor_ShouldReuseFirstSubscriberPage() {
+        SubscriberIdsPage firstPage = SubscriberIdsPage.builder().ids(new long[]{1L, 2L}).total(2L).build();
+        when(postRepository.findByPublishedAndNotDeletedAndAuthorIdOrderCreatedAtDesc(1L))
+                .thenReturn(Collections.singletonList(testPost));
+        when(subscriptionService.getUserSubscriberPage(eq(1L), isNull(), anyInt())).thenReturn(firstPage);
+        when(feedFanOutPolicy.isCelebrity(1L, 2L)).thenReturn(false);
+        when(subscriptionService.forEachUserSubscriberChunk(eq(1L), same(firstPage), anyInt(), any()))
+                .thenAnswer(subscriberChunk(3));
+        ReflectionTestUtils.invokeMethod(cacheWarmerService, "warmUpFeeds", Set.of(1L), Set.of());
+        verify(subscriptionService).getUserSubscriberPage(eq(1L), isNull(), anyInt());
+        verify(userFeedZSetService).addPostToFeeds(any(long[].class), anyLong(), any(LocalDateTime.class));
+        verify(userFeedZSetService).removeCelebrity(1L);
     }
 
     @Test
@@ -184,7 +227,7 @@ class CacheWarmerServiceTest {
                 .thenReturn(new LinkedHashSet<>());
         ReflectionTestUtils.invokeMethod(cacheWarmerService, "warmUpPosts", Collections.singleton(1L));
         verify(mockMapper).toPostCache(testPost);
-        verify(postCacheRepository).save(expectedPostCache);
+        verify(postCacheStore).save(expectedPostCache);
     }
 
     @Test
@@ -212,6 +255,14 @@ class CacheWarmerServiceTest {
         when(commentCacheService.fetchLatestComments(anyLong()))
                 .thenReturn(new LinkedHashSet<>());
         ReflectionTestUtils.invokeMethod(cacheWarmerService, "warmUpPosts", activeAuthors);
-        verify(postCacheRepository, times(1)).save(any(PostCache.class));
+        verify(postCacheStore, times(1)).save(any(PostCache.class));
+    }
+
+    private Answer<Long> subscriberChunk(int consumerIndex) {
+        return invocation -> {
+            Consumer<long[]> chunkConsumer = invocation.getArgument(consumerIndex);
+            chunkConsumer.accept(new long[]{1L, 2L});
+            return 2L;
+        };
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+package faang.school.postservice.service.cash;
+
+import faang.school.postservice.redis.entities.PostCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostCounterCacheTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @InjectMocks
+    private PostCounterCache postCounterCache;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void incrementLikes_ShouldRunAtomicScriptOnCounterKey() {
+        postCounterCache.incrementLikes(1L, -1);
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("post-counters:1")), eq("likes"), eq("-1"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void seed_ShouldKeepExistingCountersAndRefreshTtl() {
+        StringRedisConnection connection = mock(StringRedisConnection.class);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            invocation.<RedisCallback<Object>>getArgument(0).doInRedis(connection);
+            return List.of();
+        });
+        postCounterCache.seed(PostCache.builder().id(1L).likesCount(3L).commentsCount(2L).build());
+        verify(connection).hSetNX("post-counters:1", "likes", "3");
+        verify(connection).hSetNX("post-counters:1", "comments", "2");
+        verify(connection).expire("post-counters:1", Duration.ofHours(24).toSeconds());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getAll_ShouldSkipPostsWithoutCounters() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(List.of("42", "7"), Arrays.asList(null, null)));
+        Map<Long, PostCounters> counters = postCounterCache.getAll(List.of(1L, 2L));
+        assertEquals(Map.of(1L, new PostCounters(42L, 7L)), counters);
+    }
+}
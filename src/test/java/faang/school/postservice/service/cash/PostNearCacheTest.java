@@ -0,0 +1,56 @@
+package faang.school.postservice.service.cash;
+
+import faang.school.postservice.redis.entities.PostCache;
+import faang.school.postservice.repository.redis.PostCacheStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostNearCacheTest {
+
+    @Mock
+    private PostCacheStore postCacheStore;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PostNearCache postNearCache;
+    private PostCache post;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        postNearCache = new PostNearCache(postCacheStore, meterRegistry, 100, 60);
+        post = PostCache.builder().id(1L).content("Test content").build();
+    }
+
+    @Test
+    void getAll_ShouldLoadMissesFromRedisOnlyOnce() {
+        when(postCacheStore.findAllById(List.of(1L))).thenReturn(Map.of(1L, post));
+        postNearCache.getAll(List.of(1L));
+        Map<Long, PostCache> result = postNearCache.getAll(List.of(1L));
+        assertEquals(post, result.get(1L));
+        verify(postCacheStore, times(1)).findAllById(List.of(1L));
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", "post-near-cache").functionCounter());
+    }
+
+    @Test
+    void invalidate_ShouldReloadPostFromRedis() {
+        when(postCacheStore.findAllById(List.of(1L))).thenReturn(Map.of(1L, post));
+        postNearCache.getAll(List.of(1L));
+        postNearCache.invalidate(1L);
+        postNearCache.getAll(List.of(1L));
+        verify(postCacheStore, times(2)).findAllById(List.of(1L));
+    }
+}
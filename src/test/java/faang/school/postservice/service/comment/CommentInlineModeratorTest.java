@@ -0,0 +1,168 @@
+package faang.school.postservice.service.comment;
+
+import faang.school.postservice.config.moderation.CurseWordMatcher;
+import faang.school.postservice.config.moderation.DictionarySnapshot;
+import faang.school.postservice.config.moderation.ModerationDictionary;
+import faang.school.postservice.kafka.event.NewCommentEvent;
+import faang.school.postservice.kafka.producer.KafkaCommentProducer;
+import faang.school.postservice.model.Comment;
+import faang.school.postservice.repository.CommentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CommentInlineModeratorTest {
+
+    @Mock
+    private ModerationDictionary moderationDictionary;
+    @Mock
+    private CommentModerationStage moderationStage;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private KafkaCommentProducer kafkaCommentProducer;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CommentInlineModerator inlineModerator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        inlineModerator = new CommentInlineModerator(moderationDictionary, moderationStage, commentRepository,
+                transactionTemplate, kafkaCommentProducer, meterRegistry);
+        ReflectionTestUtils.setField(inlineModerator, "inlineEnabled", true);
+        ReflectionTestUtils.setField(inlineModerator, "inlineMaxLength", 10);
+    }
+
+    @Test
+    void moderate_WhenContentFitsLengthBudget_ShouldSetVerdict() {
+        when(moderationDictionary.getSnapshot()).thenReturn(dictionary());
+        Comment comment = comment("0123456789");
+
+        assertTrue(inlineModerator.moderate(comment));
+
+        assertTrue(comment.getVerified());
+        assertEquals(7L, comment.getDictionaryVersion());
+    }
+
+    @Test
+    void moderate_WhenContentExceedsLengthBudget_ShouldLeaveCommentUnverified() {
+        Comment comment = comment("01234567890");
+
+        assertFalse(inlineModerator.moderate(comment));
+
+        assertNull(comment.getVerified());
+        verifyNoInteractions(moderationDictionary);
+    }
+
+    @Test
+    void moderate_WhenInlineIsDisabled_ShouldLeaveCommentUnverified() {
+        ReflectionTestUtils.setField(inlineModerator, "inlineEnabled", false);
+        Comment comment = comment("hello");
+
+        assertFalse(inlineModerator.moderate(comment));
+
+        assertNull(comment.getVerified());
+        verifyNoInteractions(moderationDictionary);
+    }
+
+    @Test
+    void moderateLater_WhenStageAccepts_ShouldCountQueuedAndPublishApproval() {
+        when(moderationDictionary.getSnapshot()).thenReturn(dictionary());
+        runStageTasks();
+        runTransactionCallbacks();
+        when(commentRepository.updateVerdicts(eq(List.of(1L)), eq(true), any(LocalDateTime.class), eq(7L)))
+                .thenReturn(1);
+
+        inlineModerator.moderateLater(comment("hello"));
+
+        ArgumentCaptor<NewCommentEvent> captor = ArgumentCaptor.forClass(NewCommentEvent.class);
+        verify(kafkaCommentProducer).sendCommentEvent(captor.capture());
+        assertTrue(captor.getValue().isApproval());
+        assertTrue(captor.getValue().isVerified());
+        assertEquals(1.0, fallbackCount("queued"));
+        assertEquals(0.0, fallbackCount("deferred"));
+    }
+
+    @Test
+    void moderateLater_WhenCommentIsRejected_ShouldNotPublishApproval() {
+        when(moderationDictionary.getSnapshot()).thenReturn(dictionary());
+        runStageTasks();
+        runTransactionCallbacks();
+        when(commentRepository.updateVerdicts(eq(List.of(1L)), eq(false), any(LocalDateTime.class), eq(7L)))
+                .thenReturn(1);
+
+        inlineModerator.moderateLater(comment("fuck"));
+
+        verify(kafkaCommentProducer, never()).sendCommentEvent(any());
+        assertEquals(1.0, fallbackCount("queued"));
+    }
+
+    @Test
+    void moderateLater_WhenQueueIsFull_ShouldCountDeferred() {
+        when(moderationStage.trySubmit(any())).thenReturn(Optional.empty());
+
+        inlineModerator.moderateLater(comment("hello"));
+
+        verify(commentRepository, never()).updateVerdicts(any(), anyBoolean(), any(), anyLong());
+        verifyNoInteractions(kafkaCommentProducer);
+        assertEquals(0.0, fallbackCount("queued"));
+        assertEquals(1.0, fallbackCount("deferred"));
+    }
+
+    private Comment comment(String content) {
+        Comment comment = CommentTestData.getComment(1L, content, 2L, 3L, Collections.emptyList());
+        comment.setCreatedAt(LocalDateTime.now());
+        return comment;
+    }
+
+    private DictionarySnapshot dictionary() {
+        return new DictionarySnapshot(7L, CurseWordMatcher.compile(List.of("fuck")));
+    }
+
+    private double fallbackCount(String path) {
+        return meterRegistry.get("comment.moderation.fallback").tag("path", path).counter().count();
+    }
+
+    private void runStageTasks() {
+        when(moderationStage.trySubmit(any())).thenAnswer(invocation ->
+                Optional.of(CompletableFuture.completedFuture(invocation.<Supplier<?>>getArgument(0).get())));
+    }
+
+    private void runTransactionCallbacks() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+    }
+}
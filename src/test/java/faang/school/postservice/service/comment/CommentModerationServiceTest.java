@@ -0,0 +1,219 @@
+package faang.school.postservice.service.comment;
+
+import faang.school.postservice.config.moderation.CurseWordMatcher;
+import faang.school.postservice.config.moderation.DictionarySnapshot;
+import faang.school.postservice.config.moderation.ModerationDictionary;
+import faang.school.postservice.dto.comment.CommentModerationView;
+import faang.school.postservice.kafka.event.NewCommentEvent;
+import faang.school.postservice.kafka.producer.KafkaCommentProducer;
+import faang.school.postservice.repository.CommentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CommentModerationServiceTest {
+
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private ModerationDictionary moderationDictionary;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private KafkaCommentProducer kafkaCommentProducer;
+
+    @TempDir
+    private Path directory;
+
+    private ExecutorService executor;
+    private CommentModerationService moderationService;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+        CommentModerationStage moderationStage = new CommentModerationStage(executor, 2, 2, new SimpleMeterRegistry());
+        moderationService = new CommentModerationService(
+                commentRepository, moderationDictionary, redisTemplate, transactionTemplate, moderationStage,
+                kafkaCommentProducer);
+        ReflectionTestUtils.setField(moderationService, "pageSize", 2);
+        ReflectionTestUtils.setField(moderationService, "partitionSize", 1);
+        ReflectionTestUtils.setField(moderationService, "maxPagesPerRun", 10);
+        ReflectionTestUtils.setField(moderationService, "lockTtlSeconds", 120L);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void moderatePendingComments_ShouldResumeFromCheckpointAndWriteGroupedVerdicts() {
+        ArgumentCaptor<String> tokenCaptor = ArgumentCaptor.forClass(String.class);
+        when(valueOperations.setIfAbsent(eq(CommentModerationService.LOCK_KEY), tokenCaptor.capture(),
+                eq(Duration.ofSeconds(120)))).thenReturn(true);
+        when(redisTemplate.execute(eq(CommentModerationService.LOCK_EXTEND_SCRIPT),
+                eq(List.of(CommentModerationService.LOCK_KEY)), anyString(), eq("120000"))).thenReturn(1L);
+        when(redisTemplate.execute(eq(CommentModerationService.LOCK_RELEASE_SCRIPT),
+                eq(List.of(CommentModerationService.LOCK_KEY)), anyString())).thenReturn(1L);
+        when(valueOperations.get(CommentModerationService.CHECKPOINT_KEY)).thenReturn("10");
+        when(moderationDictionary.getSnapshot())
+                .thenReturn(new DictionarySnapshot(7L, CurseWordMatcher.compile(List.of("fuck"))));
+        List<CommentModerationView> firstPage = List.of(view(11L, "hello"), view(12L, "fuck"));
+        List<CommentModerationView> lastPage = List.of(view(13L, "nice"));
+        when(commentRepository.findUncheckedPage(10L, 2)).thenReturn(firstPage);
+        when(commentRepository.findUncheckedPage(12L, 2)).thenReturn(lastPage);
+        runTransactionCallbacks();
+
+        moderationService.moderatePendingComments();
+
+        verify(commentRepository).updateVerdicts(eq(List.of(11L)), eq(true), any(LocalDateTime.class), eq(7L));
+        verify(commentRepository).updateVerdicts(eq(Set.of(12L)), eq(false), any(LocalDateTime.class), eq(7L));
+        verify(commentRepository).updateVerdicts(eq(List.of(13L)), eq(true), any(LocalDateTime.class), eq(7L));
+        verify(valueOperations).set(CommentModerationService.CHECKPOINT_KEY, "12");
+        verify(valueOperations).set(CommentModerationService.CHECKPOINT_KEY, "0");
+        verify(redisTemplate).execute(CommentModerationService.LOCK_RELEASE_SCRIPT,
+                List.of(CommentModerationService.LOCK_KEY), tokenCaptor.getValue());
+        ArgumentCaptor<NewCommentEvent> approvals = ArgumentCaptor.forClass(NewCommentEvent.class);
+        verify(kafkaCommentProducer, times(2)).sendCommentEvent(approvals.capture());
+        assertEquals(List.of(11L, 13L), approvals.getAllValues().stream().map(NewCommentEvent::getId).toList());
+        assertTrue(approvals.getAllValues().stream().allMatch(NewCommentEvent::isApproval));
+    }
+
+    @Test
+    void moderatePendingComments_WhenPartitionFails_ShouldNotWriteVerdictsOrMoveCheckpoint() {
+        ArgumentCaptor<String> tokenCaptor = ArgumentCaptor.forClass(String.class);
+        when(valueOperations.setIfAbsent(eq(CommentModerationService.LOCK_KEY), tokenCaptor.capture(),
+                eq(Duration.ofSeconds(120)))).thenReturn(true);
+        when(moderationDictionary.getSnapshot()).thenReturn(cleanDictionary());
+        CommentModerationView clean = mock(CommentModerationView.class);
+        when(clean.getContent()).thenReturn("hello");
+        CommentModerationView broken = mock(CommentModerationView.class);
+        when(broken.getContent()).thenThrow(new IllegalStateException("broken row"));
+        List<CommentModerationView> page = List.of(clean, broken);
+        when(commentRepository.findUncheckedPage(0L, 2)).thenReturn(page);
+
+        assertThrows(CompletionException.class, () -> moderationService.moderatePendingComments());
+
+        verify(commentRepository, never()).updateVerdicts(any(), anyBoolean(), any(), anyLong());
+        verify(valueOperations, never()).set(eq(CommentModerationService.CHECKPOINT_KEY), any());
+        verify(kafkaCommentProducer, never()).sendCommentEvent(any());
+        verify(redisTemplate).execute(CommentModerationService.LOCK_RELEASE_SCRIPT,
+                List.of(CommentModerationService.LOCK_KEY), tokenCaptor.getValue());
+    }
+
+    @Test
+    void moderatePendingComments_WhenLockIsHeld_ShouldSkipRun() {
+        when(valueOperations.setIfAbsent(eq(CommentModerationService.LOCK_KEY), anyString(),
+                eq(Duration.ofSeconds(120)))).thenReturn(false);
+
+        moderationService.moderatePendingComments();
+
+        verify(commentRepository, never()).findUncheckedPage(anyLong(), eq(2));
+        verify(commentRepository, never()).updateVerdicts(any(), anyBoolean(), any(), anyLong());
+        verify(redisTemplate, never()).execute(eq(CommentModerationService.LOCK_RELEASE_SCRIPT),
+                anyList(), anyString());
+    }
+
+    @Test
+    void moderatePendingComments_WhenLockIsLost_ShouldStopAfterCurrentPage() {
+        when(valueOperations.setIfAbsent(eq(CommentModerationService.LOCK_KEY), anyString(),
+                eq(Duration.ofSeconds(120)))).thenReturn(true);
+        when(redisTemplate.execute(eq(CommentModerationService.LOCK_EXTEND_SCRIPT),
+                eq(List.of(CommentModerationService.LOCK_KEY)), anyString(), eq("120000"))).thenReturn(0L);
+        when(redisTemplate.execute(eq(CommentModerationService.LOCK_RELEASE_SCRIPT),
+                eq(List.of(CommentModerationService.LOCK_KEY)), anyString())).thenReturn(1L);
+        when(moderationDictionary.getSnapshot()).thenReturn(cleanDictionary());
+        when(commentRepository.findUncheckedPage(0L, 2)).thenReturn(List.of(view(1L, "hello"), view(2L, "nice")));
+        runTransactionCallbacks();
+
+        moderationService.moderatePendingComments();
+
+        verify(valueOperations).set(CommentModerationService.CHECKPOINT_KEY, "2");
+        verify(commentRepository, never()).findUncheckedPage(2L, 2);
+    }
+
+    @Test
+    void moderatePendingComments_WhenDictionaryFileIsMissing_ShouldLeaveCommentsUnverified() {
+        ModerationDictionary missingDictionary = new ModerationDictionary();
+        ReflectionTestUtils.setField(missingDictionary, "curseWordsPath", directory.resolve("curse-words.txt"));
+        missingDictionary.init();
+        CommentModerationStage moderationStage = new CommentModerationStage(executor, 2, 2, new SimpleMeterRegistry());
+        CommentModerationService service = new CommentModerationService(
+                commentRepository, missingDictionary, redisTemplate, transactionTemplate, moderationStage,
+                kafkaCommentProducer);
+        when(valueOperations.setIfAbsent(eq(CommentModerationService.LOCK_KEY), anyString(),
+                eq(Duration.ofSeconds(120)))).thenReturn(true);
+
+        service.moderatePendingComments();
+
+        verify(commentRepository, never()).findUncheckedPage(anyLong(), anyInt());
+        verify(commentRepository, never()).updateVerdicts(any(), anyBoolean(), any(), anyLong());
+        verify(valueOperations, never()).set(eq(CommentModerationService.CHECKPOINT_KEY), any());
+        verify(redisTemplate).execute(eq(CommentModerationService.LOCK_RELEASE_SCRIPT),
+                eq(List.of(CommentModerationService.LOCK_KEY)), anyString());
+    }
+
+    private DictionarySnapshot cleanDictionary() {
+        return new DictionarySnapshot(1L, CurseWordMatcher.compile(List.of("fuck")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionCallbacks() {
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> callback = invocation.getArgument(0);
+            callback.accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any(Consumer.class));
+    }
+
+    private CommentModerationView view(Long id, String content) {
+        CommentModerationView view = mock(CommentModerationView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getContent()).thenReturn(content);
+        return view;
+    }
+}
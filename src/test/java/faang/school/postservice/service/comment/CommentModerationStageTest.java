@@ -0,0 +1,100 @@
+package faang.school.postservice.service.comment;
+
+import faang.school.postservice.config.async.ExecutorConfig;
+import faang.school.postservice.config.context.UserContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class CommentModerationStageTest {
+
+    private ExecutorService executor;
+    private SimpleMeterRegistry meterRegistry;
+    private CommentModerationStage moderationStage;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(1);
+        meterRegistry = new SimpleMeterRegistry();
+        moderationStage = new CommentModerationStage(executor, 1, 0, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void submit_ShouldRecordPartitionTimeByOutcome() {
+        assertEquals(3, moderationStage.submit(() -> 3).join());
+        CompletableFuture<Object> failed = moderationStage.submit(() -> {
+            throw new IllegalStateException("broken");
+        });
+
+        ExecutionException exception = assertThrows(ExecutionException.class, failed::get);
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+        assertEquals(1, meterRegistry.get("comment.moderation.partition").tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("comment.moderation.partition").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    void submit_WhenAllPermitsAreTaken_ShouldBlockUntilPartitionCompletes() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = moderationStage.submit(() -> awaitQuietly(release));
+        CompletableFuture<Integer> blockedSubmit = CompletableFuture.supplyAsync(
+                () -> moderationStage.submit(() -> 1).join());
+
+        assertThrows(TimeoutException.class, () -> blockedSubmit.get(200, TimeUnit.MILLISECONDS));
+        assertFalse(running.isDone());
+
+        release.countDown();
+        assertEquals(1, blockedSubmit.get(5, TimeUnit.SECONDS));
+        assertEquals(0, meterRegistry.get("comment.moderation.partitions.in.flight").gauge().value());
+    }
+
+    @Test
+    void submit_AtPermitLimitWithFastTasks_ShouldNeverBeRejectedByPool() {
+        ExecutorConfig executorConfig = new ExecutorConfig(mock(UserContext.class));
+        ReflectionTestUtils.setField(executorConfig, "threadsCountCommentModerator", 2);
+        ReflectionTestUtils.setField(executorConfig, "queueCapacityCommentModerator", 1);
+        ExecutorService pool = executorConfig.executorCommentModerator();
+        try {
+            CommentModerationStage stage = new CommentModerationStage(pool, 2, 1, meterRegistry);
+            List<CompletableFuture<Integer>> partitions = new ArrayList<>();
+            for (int i = 0; i < 20_000; i++) {
+                partitions.add(stage.submit(() -> 1));
+            }
+
+            assertEquals(20_000, partitions.stream().mapToInt(CompletableFuture::join).sum());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
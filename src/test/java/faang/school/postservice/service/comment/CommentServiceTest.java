@@ -6,6 +6,7 @@ import faang.school.postservice.dto.comment.CommentDto;
 import faang.school.postservice.dto.comment.ResponseCommentDto;
 import faang.school.postservice.dto.user.UserDto;
 import faang.school.postservice.exception.UserNotFoundException;
+import faang.school.postservice.kafka.event.NewCommentEvent;
 import faang.school.postservice.kafka.producer.KafkaCommentProducer;
 import faang.school.postservice.mapper.comment.CommentMapper;
 import faang.school.postservice.model.Comment;
@@ -31,7 +32,9 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -61,6 +64,9 @@ class CommentServiceTest {
     @Mock
     private KafkaCommentProducer kafkaCommentProducer;
 
+    @Mock
+    private CommentInlineModerator inlineModerator;
+
     @Test
     @DisplayName("Positive test addComment")
     void testPositiveAddComment() {
@@ -89,6 +95,33 @@ class CommentServiceTest {
 
         assertEquals(userId, savedComment.getAuthorId(), "Saved comment author ID should match userContext.getUserId()");
         assertEquals(postId, savedComment.getPost().getId(), "Saved comment post ID should match provided post ID");
+        verify(inlineModerator).moderateLater(savedComment);
+    }
+
+    @Test
+    @DisplayName("addComment moderated inline ships the verdict in the comment event")
+    void testAddComment_ModeratedInline_ShouldSendVerifiedEvent() {
+        Long userId = 1L;
+        Long postId = 1L;
+        CommentDto commentDto = CommentTestData.getCommentDto(1L, "Nice", userId, postId, Collections.emptyList());
+        Comment comment = CommentTestData.getComment(1L, "Nice", userId, postId, Collections.emptyList());
+
+        when(userServiceClient.getUser(userId)).thenReturn(new UserDto(userId, "name", "email"));
+        when(userContext.getUserId()).thenReturn(userId);
+        when(postRepository.findById(postId)).thenReturn(Optional.of(CommentTestData.getPost(postId, userId)));
+        when(commentMapper.toEntity(commentDto)).thenReturn(comment);
+        when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(inlineModerator.moderate(comment)).thenAnswer(invocation -> {
+            comment.setVerified(true);
+            return true;
+        });
+
+        commentService.addComment(postId, commentDto);
+
+        ArgumentCaptor<NewCommentEvent> captor = ArgumentCaptor.forClass(NewCommentEvent.class);
+        verify(kafkaCommentProducer).sendCommentEvent(captor.capture());
+        assertTrue(captor.getValue().isVerified());
+        verify(inlineModerator, never()).moderateLater(any(Comment.class));
     }
 
     @Test
@@ -4,13 +4,18 @@ import faang.school.postservice.dto.comment.CommentDto;
 import faang.school.postservice.dto.feed.FeedResponse;
 import faang.school.postservice.dto.feed.PostDTO;
 import faang.school.postservice.dto.post.PostVisibility;
+import faang.school.postservice.exception.InvalidFeedCursorException;
 import faang.school.postservice.mapper.post.PostMapper;
 import faang.school.postservice.model.Post;
 import faang.school.postservice.redis.entities.CommentCache;
 import faang.school.postservice.redis.entities.PostCache;
 import faang.school.postservice.repository.PostRepository;
-import faang.school.postservice.repository.redis.PostCacheRepository;
+import faang.school.postservice.repository.redis.PostCacheStore;
 import faang.school.postservice.service.cash.CommentCacheService;
+import faang.school.postservice.service.cash.PostCounterCache;
+import faang.school.postservice.service.cash.PostCounters;
+import faang.school.postservice.service.cash.PostNearCache;
+import faang.school.postservice.service.subscription.SubscriptionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,7 +23,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
@@ -26,16 +30,27 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -44,7 +59,7 @@ import static org.mockito.Mockito.when;
 class FeedServiceTest {
 
     @Mock
-    private PostCacheRepository postCacheRepository;
+    private PostCacheStore postCacheStore;
     @Mock
     private PostRepository postRepository;
     @Mock
@@ -53,6 +68,14 @@ class FeedServiceTest {
     private UserFeedZSetService userFeedZSetService;
     @Mock
     private PostMapper postMapper;
+    @Mock
+    private FeedMetrics feedMetrics;
+    @Mock
+    private SubscriptionService subscriptionService;
+    @Mock
+    private PostNearCache postNearCache;
+    @Mock
+    private PostCounterCache postCounterCache;
 
     @InjectMocks
     private FeedService feedService;
@@ -70,6 +93,7 @@ class FeedServiceTest {
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .publishedAt(LocalDateTime.now())
+                .published(true)
                 .verified(true)
                 .likesCount(10L)
                 .commentsCount(5L)
@@ -81,6 +105,7 @@ class FeedServiceTest {
                 .content("Test content")
                 .updatedAt(LocalDateTime.now())
                 .publishedAt(LocalDateTime.now())
+                .published(true)
                 .verified(true)
                 .visibility(PostVisibility.PUBLIC)
                 .likesCount(10L)
@@ -100,98 +125,222 @@ class FeedServiceTest {
     @DisplayName("Get feed with valid input returns expected feed response")
     void getFeed_WithValidInput_ReturnsExpectedFeedResponse() {
         Long userId = 1L;
-        Long lastPostId = null;
+        String cursor = null;
         int pageSize = 10;
         List<Long> postIds = Arrays.asList(1L, 2L);
-        when(userFeedZSetService.getFeedPosts(eq(userId), eq(lastPostId), anyInt()))
-                .thenReturn(postIds);
+        when(userFeedZSetService.getFeedPosts(eq(userId), eq(null), anyInt()))
+                .thenReturn(List.of(new FeedEntry(1L, 2000L), new FeedEntry(2L, 1000L)));
         PostDTO mockPostDTO = mock(PostDTO.class);
         when(mockPostDTO.getId()).thenReturn(1L);
-        when(postCacheRepository.findById(1L))
-                .thenReturn(Optional.of(testPostCache));
-        when(postRepository.findById(1L))
-                .thenReturn(Optional.of(testPost));
+        when(postNearCache.getAll(postIds))
+                .thenReturn(Map.of(1L, testPostCache));
+        when(postRepository.findAllById(postIds))
+                .thenReturn(List.of(testPost));
         when(postMapper.postCacheToPostDTO(any(PostCache.class))).thenReturn(mockPostDTO);
-        FeedResponse response = feedService.getFeed(userId, lastPostId, pageSize);
+        FeedResponse response = feedService.getFeed(userId, cursor, pageSize);
         assertNotNull(response);
-        assertFalse(response.getPosts().isEmpty());
+        assertEquals(1, response.getPosts().size());
         assertEquals(1L, response.getPosts().get(0).getId());
-        verify(userFeedZSetService).getFeedPosts(eq(userId), eq(lastPostId), anyInt());
+        assertEquals(new FeedCursor(1000L, 2L).encode(), response.getNextCursor());
+        verify(userFeedZSetService).getFeedPosts(eq(userId), eq(null), anyInt());
+        verify(postCacheStore, never()).findById(any());
+        verify(postRepository, never()).findById(any());
     }
 
     @Test
     @DisplayName("Get feed with empty cache loads from database")
     void getFeed_WithEmptyCache_LoadsFromDatabase() {
         Long userId = 1L;
-        Long lastPostId = null;
+        String cursor = null;
         int pageSize = 10;
         ReflectionTestUtils.setField(feedService, "feedSize", 10);
-        when(userFeedZSetService.getFeedPosts(eq(userId), eq(lastPostId), anyInt()))
+        when(userFeedZSetService.getFeedPosts(eq(userId), eq(null), anyInt()))
                 .thenReturn(Collections.emptyList())
-                .thenReturn(List.of(1L));
-        when(postRepository.findLatestPostsForUser(eq(userId), any(PageRequest.class)))
+                .thenReturn(List.of(new FeedEntry(1L, 1000L)));
+        when(subscriptionService.getFolloweeIds(userId)).thenReturn(List.of(2L));
+        when(subscriptionService.getSubscribedProjectIds(userId)).thenReturn(List.of(3L));
+        when(postRepository.findLatestFeedPostsByAuthors(eq(List.of(2L)), anyInt()))
+                .thenReturn(List.of(testPost));
+        when(postRepository.findLatestFeedPostsByProjects(eq(List.of(3L)), anyInt()))
                 .thenReturn(List.of(testPost));
         PostDTO mockPostDTO = mock(PostDTO.class);
         when(mockPostDTO.getId()).thenReturn(1L);
-        when(postCacheRepository.findById(1L)).thenReturn(Optional.of(testPostCache));
-        when(postRepository.findById(1L)).thenReturn(Optional.of(testPost));
+        when(postNearCache.getAll(List.of(1L))).thenReturn(Map.of(1L, testPostCache));
+        when(postRepository.findAllById(List.of(1L))).thenReturn(List.of(testPost));
         when(postMapper.postCacheToPostDTO(any(PostCache.class))).thenReturn(mockPostDTO);
-        FeedResponse response = feedService.getFeed(userId, lastPostId, pageSize);
+        FeedResponse response = feedService.getFeed(userId, cursor, pageSize);
         assertNotNull(response);
         assertFalse(response.getPosts().isEmpty());
-        verify(userFeedZSetService, times(2)).getFeedPosts(eq(userId), eq(lastPostId), anyInt());
-        verify(postRepository).findLatestPostsForUser(eq(userId), any(PageRequest.class));
+        verify(userFeedZSetService, times(2)).getFeedPosts(eq(userId), eq(null), anyInt());
+        verify(postRepository).findLatestFeedPostsByAuthors(eq(List.of(2L)), anyInt());
+        verify(postRepository).findLatestFeedPostsByProjects(eq(List.of(3L)), anyInt());
+        verify(userFeedZSetService).addPostsToFeed(userId, Map.of(1L, testPost.getPublishedAt()));
+    }
+
+    @Test
+    @DisplayName("Concurrent cold requests share one feed rebuild")
+    void loadUserFeedFromDatabase_WithConcurrentRequests_RebuildsOnce() throws Exception {
+        Long userId = 1L;
+        ReflectionTestUtils.setField(feedService, "feedSize", 10);
+        CountDownLatch rebuildStarted = new CountDownLatch(1);
+        CountDownLatch releaseRebuild = new CountDownLatch(1);
+        when(subscriptionService.getFolloweeIds(userId)).thenReturn(List.of(2L));
+        when(subscriptionService.getSubscribedProjectIds(userId)).thenReturn(List.of());
+        when(postRepository.findLatestFeedPostsByAuthors(eq(List.of(2L)), anyInt()))
+                .thenAnswer(invocation -> {
+                    rebuildStarted.countDown();
+                    releaseRebuild.await();
+                    return List.of(testPost);
+                });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> leader = executor.submit(() -> feedService.loadUserFeedFromDatabase(userId));
+            assertTrue(rebuildStarted.await(5, TimeUnit.SECONDS));
+            Future<?> follower = executor.submit(() -> feedService.loadUserFeedFromDatabase(userId));
+            Thread.sleep(100);
+            assertFalse(follower.isDone());
+            releaseRebuild.countDown();
+            leader.get(5, TimeUnit.SECONDS);
+            follower.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(postRepository).findLatestFeedPostsByAuthors(any(), anyInt());
+        verify(postRepository, never()).findLatestFeedPostsByProjects(any(), anyInt());
+        verify(userFeedZSetService).addPostsToFeed(eq(userId), any());
+    }
+
+    @Test
+    @DisplayName("Feed rebuild for user without subscriptions skips database")
+    void loadUserFeedFromDatabase_WithoutSubscriptions_SkipsDatabase() {
+        Long userId = 1L;
+        when(subscriptionService.getFolloweeIds(userId)).thenReturn(List.of());
+        when(subscriptionService.getSubscribedProjectIds(userId)).thenReturn(List.of());
+        feedService.loadUserFeedFromDatabase(userId);
+        verify(postRepository, never()).findLatestFeedPostsByAuthors(any(), anyInt());
+        verify(postRepository, never()).findLatestFeedPostsByProjects(any(), anyInt());
+        verify(userFeedZSetService, never()).addPostsToFeed(anyLong(), any());
     }
 
     @Test
     @DisplayName("Get feed with large page size limits to maximum page size")
     void getFeed_WithLargePageSize_LimitsToMaxPageSize() {
         Long userId = 1L;
-        Long lastPostId = null;
+        String cursor = null;
         int pageSize = 100;
-        when(userFeedZSetService.getFeedPosts(eq(userId), eq(lastPostId), anyInt()))
-                .thenReturn(List.of(1L));
-        when(postCacheRepository.findById(1L))
-                .thenReturn(Optional.of(testPostCache));
-        when(postRepository.findById(1L))
-                .thenReturn(Optional.of(testPost));
+        when(userFeedZSetService.getFeedPosts(eq(userId), eq(null), anyInt()))
+                .thenReturn(List.of(new FeedEntry(1L, 1000L)));
+        when(postNearCache.getAll(List.of(1L)))
+                .thenReturn(Map.of(1L, testPostCache));
+        when(postRepository.findAllById(List.of(1L)))
+                .thenReturn(List.of(testPost));
         PostDTO mockPostDTO = mock(PostDTO.class);
         when(postMapper.postCacheToPostDTO(any(PostCache.class))).thenReturn(mockPostDTO);
-        FeedResponse response = feedService.getFeed(userId, lastPostId, pageSize);
+        FeedResponse response = feedService.getFeed(userId, cursor, pageSize);
         assertNotNull(response);
-        verify(userFeedZSetService).getFeedPosts(eq(userId), eq(lastPostId), anyInt());
+        verify(userFeedZSetService).getFeedPosts(eq(userId), eq(null), anyInt());
         verify(postMapper).postCacheToPostDTO(testPostCache); // Проверка вызова postMapper
     }
 
     @Test
-    @DisplayName("Get post from cache returns cached version")
-    void getPost_WithCachedPost_ReturnsCachedVersion() {
+    @DisplayName("Get feed with cursor pages after cursor and does not rebuild exhausted feed")
+    void getFeed_WithCursorAtEndOfFeed_ReturnsEmptyPageWithoutRebuild() {
+        Long userId = 1L;
+        ReflectionTestUtils.setField(feedService, "maxPageSize", 20);
+        FeedCursor cursor = new FeedCursor(1000L, 1L);
+        when(userFeedZSetService.getFeedPosts(userId, cursor, 10))
+                .thenReturn(Collections.emptyList());
+        FeedResponse response = feedService.getFeed(userId, cursor.encode(), 10);
+        assertTrue(response.getPosts().isEmpty());
+        assertFalse(response.isHasMore());
+        assertNull(response.getNextCursor());
+        verify(postRepository, never()).findLatestFeedPostsByAuthors(any(), anyInt());
+        verify(postRepository, never()).findLatestFeedPostsByProjects(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Get feed merges followed celebrity timelines into pushed feed")
+    void getFeed_WithFollowedCelebrity_MergesTimelineIntoFeed() {
+        Long userId = 1L;
+        Long celebrityId = 7L;
+        ReflectionTestUtils.setField(feedService, "maxPageSize", 20);
+        when(userFeedZSetService.getFeedPosts(userId, null, 2))
+                .thenReturn(List.of(new FeedEntry(1L, 3000L), new FeedEntry(2L, 1000L)));
+        when(userFeedZSetService.getFollowedCelebrities(userId)).thenReturn(Optional.empty());
+        when(subscriptionService.findFolloweeIds(userId)).thenReturn(Optional.of(List.of(5L, celebrityId)));
+        when(userFeedZSetService.filterCelebrities(List.of(5L, celebrityId))).thenReturn(List.of(celebrityId));
+        when(userFeedZSetService.getTimelinesPosts(List.of(celebrityId), null, 2))
+                .thenReturn(List.of(List.of(new FeedEntry(3L, 2000L))));
+        when(postNearCache.getAll(List.of(1L, 3L))).thenReturn(Map.of());
+        when(postRepository.findAllById(List.of(1L, 3L))).thenReturn(List.of());
+        FeedResponse response = feedService.getFeed(userId, null, 2);
+        assertEquals(new FeedCursor(2000L, 3L).encode(), response.getNextCursor());
+        verify(userFeedZSetService).cacheFollowedCelebrities(userId, List.of(celebrityId));
+    }
+
+    @Test
+    @DisplayName("Get feed does not cache followed celebrities when user service fails")
+    void getFeed_WhenFolloweesUnavailable_DoesNotCacheCelebrities() {
+        Long userId = 1L;
+        when(userFeedZSetService.getFeedPosts(userId, null, 2))
+                .thenReturn(List.of(new FeedEntry(1L, 3000L)));
+        when(userFeedZSetService.getFollowedCelebrities(userId)).thenReturn(Optional.empty());
+        when(subscriptionService.findFolloweeIds(userId)).thenReturn(Optional.empty());
+        when(postNearCache.getAll(List.of(1L))).thenReturn(Map.of());
+        when(postRepository.findAllById(List.of(1L))).thenReturn(List.of());
+        feedService.getFeed(userId, null, 2);
+        verify(userFeedZSetService, never()).cacheFollowedCelebrities(any(), any());
+        verify(userFeedZSetService, never()).getTimelinesPosts(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Feed rebuild leaves celebrity posts to the author timelines")
+    void loadUserFeedFromDatabase_WithCelebrityFollowee_SkipsCelebrityPosts() {
+        Long userId = 1L;
+        Long celebrityId = 7L;
+        ReflectionTestUtils.setField(feedService, "feedSize", 10);
+        when(subscriptionService.getFolloweeIds(userId)).thenReturn(List.of(2L, celebrityId));
+        when(subscriptionService.getSubscribedProjectIds(userId)).thenReturn(List.of());
+        when(userFeedZSetService.filterCelebrities(List.of(2L, celebrityId))).thenReturn(List.of(celebrityId));
+        when(postRepository.findLatestFeedPostsByAuthors(List.of(2L), 10)).thenReturn(List.of(testPost));
+        feedService.loadUserFeedFromDatabase(userId);
+        verify(postRepository).findLatestFeedPostsByAuthors(List.of(2L), 10);
+        verify(userFeedZSetService).addPostsToFeed(userId, Map.of(1L, testPost.getPublishedAt()));
+    }
+
+    @Test
+    @DisplayName("Get feed with malformed cursor is rejected")
+    void getFeed_WithMalformedCursor_ThrowsInvalidFeedCursorException() {
+        assertThrows(InvalidFeedCursorException.class, () -> feedService.getFeed(1L, "not-a-cursor", 10));
+    }
+
+    @Test
+    @DisplayName("Fetch posts with cached post uses single batch lookups")
+    void fetchAndMapPosts_WithCachedPost_UsesBatchLookups() {
         Long postId = 1L;
         PostDTO mockPostDTO = mock(PostDTO.class);
         when(mockPostDTO.getId()).thenReturn(postId);
-        when(postCacheRepository.findById(postId))
-                .thenReturn(Optional.of(testPostCache));
-        when(postRepository.findById(postId))
-                .thenReturn(Optional.of(testPost));
+        when(postNearCache.getAll(List.of(postId)))
+                .thenReturn(Map.of(postId, testPostCache));
+        when(postRepository.findAllById(List.of(postId)))
+                .thenReturn(List.of(testPost));
         when(postMapper.postCacheToPostDTO(testPostCache)).thenReturn(mockPostDTO);
-        Optional<PostDTO> result = ReflectionTestUtils.invokeMethod(
+        List<PostDTO> result = ReflectionTestUtils.invokeMethod(
                 feedService,
-                "getPost",
-                postId
+                "fetchAndMapPosts",
+                List.of(postId)
         );
         assertNotNull(result);
-        assertTrue(result.isPresent());
-        assertEquals(postId, result.get().getId());
-        verify(postMapper, times(1)).postCacheToPostDTO(testPostCache);
-        verify(postMapper, times(0)).toDto(testPost);
-        verify(postRepository, times(1)).findById(postId);
-        verify(postCacheRepository, times(1)).findById(postId);
+        assertEquals(1, result.size());
+        assertEquals(postId, result.get(0).getId());
         verify(postMapper, times(1)).postCacheToPostDTO(testPostCache);
+        verify(postMapper, times(0)).toPostCache(testPost);
+        verify(postCacheStore, never()).saveAll(any());
     }
 
     @Test
-    @DisplayName("Get post without cache loads, caches, and returns post")
-    void getPost_WithUncachedPost_CachesAndReturnsPost() {
+    @DisplayName("Fetch posts without cache loads, caches in one batch, and returns posts")
+    void fetchAndMapPosts_WithUncachedPost_CachesAndReturnsPost() {
         Long postId = 1L;
         LinkedHashSet<CommentCache> comments = new LinkedHashSet<>();
         comments.add(testComment);
@@ -201,25 +350,134 @@ class FeedServiceTest {
         PostDTO mockPostDTO = mock(PostDTO.class);
         when(mockPostDTO.getId()).thenReturn(postId);
         when(postMapper.postCacheToPostDTO(any(PostCache.class))).thenReturn(mockPostDTO);
-        when(postCacheRepository.findById(postId))
-                .thenReturn(Optional.empty());
-        when(postRepository.findById(postId))
-                .thenReturn(Optional.of(testPost));
+        when(postNearCache.getAll(List.of(postId)))
+                .thenReturn(Collections.emptyMap());
+        when(postRepository.findAllById(List.of(postId)))
+                .thenReturn(List.of(testPost));
         when(commentCacheService.fetchLatestComments(postId))
                 .thenReturn(comments);
-        when(postCacheRepository.save(any(PostCache.class)))
-                .thenReturn(testPostCache);
-        Optional<PostDTO> result = ReflectionTestUtils.invokeMethod(
+        when(postCacheStore.saveAll(anyList()))
+                .thenReturn(List.of(testPostCache));
+        List<PostDTO> result = ReflectionTestUtils.invokeMethod(
                 feedService,
-                "getPost",
-                postId
+                "fetchAndMapPosts",
+                List.of(postId)
         );
         assertNotNull(result);
-        assertTrue(result.isPresent());
-        assertEquals(postId, result.get().getId());
+        assertEquals(1, result.size());
+        assertEquals(postId, result.get(0).getId());
         verify(postMapper).toPostCache(testPost);
         verify(commentCacheService).fetchLatestComments(postId);
-        verify(postCacheRepository).save(any(PostCache.class));
+        verify(postCacheStore).saveAll(anyList());
+        verify(postCounterCache).seedAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Fetch posts overlays live Redis counters on cached post")
+    void fetchAndMapPosts_WithCachedCounters_OverlaysCounters() {
+        Long postId = 1L;
+        PostDTO postDTO = PostDTO.builder().id(postId).likesCount(10L).commentsCount(5L).build();
+        when(postNearCache.getAll(List.of(postId))).thenReturn(Map.of(postId, testPostCache));
+        when(postRepository.findAllById(List.of(postId))).thenReturn(List.of(testPost));
+        when(postMapper.postCacheToPostDTO(testPostCache)).thenReturn(postDTO);
+        when(postCounterCache.getAll(List.of(postId))).thenReturn(Map.of(postId, new PostCounters(42L, 7L)));
+        List<PostDTO> result = ReflectionTestUtils.invokeMethod(feedService, "fetchAndMapPosts", List.of(postId));
+        assertNotNull(result);
+        assertEquals(42L, result.get(0).getLikesCount());
+        assertEquals(7L, result.get(0).getCommentsCount());
+    }
+
+    @Test
+    @DisplayName("Fetch posts skips deleted posts loaded from the database")
+    void fetchAndMapPosts_WithDeletedPost_SkipsPost() {
+        Long postId = 1L;
+        testPost.setDeleted(true);
+        when(postNearCache.getAll(List.of(postId)))
+                .thenReturn(Map.of(postId, testPostCache));
+        when(postRepository.findAllById(List.of(postId)))
+                .thenReturn(List.of(testPost));
+        List<PostDTO> result = ReflectionTestUtils.invokeMethod(
+                feedService,
+                "fetchAndMapPosts",
+                List.of(postId)
+        );
+        assertNotNull(result);
+        assertTrue(result.isEmpty());
+        verify(postMapper, never()).postCacheToPostDTO(any());
+    }
+
+    @Test
+    @DisplayName("Fetch posts skips posts that cannot be added to feed")
+    void fetchAndMapPosts_WithUnverifiedPost_SkipsPost() {
+        Long postId = 1L;
+        testPost.setVerified(false);
+        when(postNearCache.getAll(List.of(postId)))
+                .thenReturn(Map.of(postId, testPostCache));
+        when(postRepository.findAllById(List.of(postId)))
+                .thenReturn(List.of(testPost));
+        List<PostDTO> result = ReflectionTestUtils.invokeMethod(
+                feedService,
+                "fetchAndMapPosts",
+                List.of(postId)
+        );
+        assertNotNull(result);
+        assertTrue(result.isEmpty());
+        verify(postMapper, never()).postCacheToPostDTO(any());
+    }
+
+    @Test
+    @DisplayName("Fetch posts in cache-only mode serves cached posts without database reads")
+    void fetchAndMapPosts_InCacheOnlyMode_SkipsDatabaseForCachedPosts() {
+        Long postId = 1L;
+        ReflectionTestUtils.setField(feedService, "cacheOnly", true);
+        PostDTO mockPostDTO = mock(PostDTO.class);
+        when(postNearCache.getAll(List.of(postId)))
+                .thenReturn(Map.of(postId, testPostCache));
+        when(postMapper.postCacheToPostDTO(testPostCache)).thenReturn(mockPostDTO);
+        List<PostDTO> result = ReflectionTestUtils.invokeMethod(
+                feedService,
+                "fetchAndMapPosts",
+                List.of(postId)
+        );
+        assertNotNull(result);
+        assertEquals(1, result.size());
+        verify(postRepository, never()).findAllById(any());
+        verify(feedMetrics).recordPage(1, 0);
+    }
+
+    @Test
+    @DisplayName("Fetch posts in cache-only mode skips cached posts marked as deleted")
+    void fetchAndMapPosts_InCacheOnlyMode_SkipsDeletedCachedPosts() {
+        Long postId = 1L;
+        ReflectionTestUtils.setField(feedService, "cacheOnly", true);
+        testPostCache.setDeleted(true);
+        when(postNearCache.getAll(List.of(postId)))
+                .thenReturn(Map.of(postId, testPostCache));
+        List<PostDTO> result = ReflectionTestUtils.invokeMethod(
+                feedService,
+                "fetchAndMapPosts",
+                List.of(postId)
+        );
+        assertNotNull(result);
+        assertTrue(result.isEmpty());
+        verify(postRepository, never()).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("Fetch posts in cache-only mode skips cached posts that are not published")
+    void fetchAndMapPosts_InCacheOnlyMode_SkipsUnpublishedCachedPosts() {
+        Long postId = 1L;
+        ReflectionTestUtils.setField(feedService, "cacheOnly", true);
+        testPostCache.setPublished(false);
+        when(postNearCache.getAll(List.of(postId)))
+                .thenReturn(Map.of(postId, testPostCache));
+        List<PostDTO> result = ReflectionTestUtils.invokeMethod(
+                feedService,
+                "fetchAndMapPosts",
+                List.of(postId)
+        );
+        assertNotNull(result);
+        assertTrue(result.isEmpty());
     }
 
     @Test
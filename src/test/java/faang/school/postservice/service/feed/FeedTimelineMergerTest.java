@@ -0,0 +1,38 @@
+package faang.school.postservice.service.feed;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FeedTimelineMergerTest {
+
+    @Test
+    @DisplayName("Merge interleaves timelines newest first and stops at limit")
+    void merge_ShouldInterleaveTimelinesNewestFirst() {
+        List<FeedEntry> pushed = List.of(new FeedEntry(1L, 500L), new FeedEntry(2L, 200L));
+        List<FeedEntry> timeline = List.of(new FeedEntry(3L, 400L), new FeedEntry(4L, 100L));
+        List<FeedEntry> merged = FeedTimelineMerger.merge(List.of(pushed, timeline), 3);
+        assertEquals(List.of(new FeedEntry(1L, 500L), new FeedEntry(3L, 400L), new FeedEntry(2L, 200L)), merged);
+    }
+
+    @Test
+    @DisplayName("Merge skips posts present in several timelines")
+    void merge_ShouldDeduplicatePosts() {
+        List<FeedEntry> pushed = List.of(new FeedEntry(1L, 500L), new FeedEntry(2L, 200L));
+        List<FeedEntry> timeline = List.of(new FeedEntry(1L, 500L), new FeedEntry(3L, 100L));
+        List<FeedEntry> merged = FeedTimelineMerger.merge(List.of(pushed, timeline), 10);
+        assertEquals(List.of(1L, 2L, 3L), merged.stream().map(FeedEntry::postId).toList());
+    }
+
+    @Test
+    @DisplayName("Merge orders equal scores like a reversed Redis ZSET")
+    void merge_WithEqualScores_ShouldOrderByMemberDescending() {
+        List<FeedEntry> first = List.of(new FeedEntry(10L, 100L));
+        List<FeedEntry> second = List.of(new FeedEntry(9L, 100L));
+        List<FeedEntry> merged = FeedTimelineMerger.merge(List.of(first, second), 10);
+        assertEquals(List.of(9L, 10L), merged.stream().map(FeedEntry::postId).toList());
+    }
+}
@@ -4,30 +4,53 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Range.Bound;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisSetCommands;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.connection.RedisZSetCommands.ZAddArgs;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.SetOperations;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
 import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.time.ZoneOffset;
-import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,9 +66,6 @@ class UserFeedZSetServiceTest {
     @InjectMocks
     private UserFeedZSetService userFeedZSetService;
 
-    @InjectMocks
-    private FeedService feedService;
-
     private static final String FEED_KEY_PREFIX = "feed:";
 
     @BeforeEach
@@ -54,77 +74,67 @@ class UserFeedZSetServiceTest {
     }
 
     @Test
-    @DisplayName("Add post to feed should add post and trim feed")
-    void addPostToFeed_ShouldAddPostAndTrimFeed() {
-        Long userId = 1L;
-        Long postId = 100L;
-        LocalDateTime timestamp = LocalDateTime.now();
-        String feedKey = FEED_KEY_PREFIX + userId;
-        double score = timestamp.toEpochSecond(ZoneOffset.UTC);
-        int feedSize = (int) ReflectionTestUtils.getField(userFeedZSetService, "feed_size");
-        when(zSetOperations.addIfAbsent(feedKey, postId.toString(), score)).thenReturn(true);
-        userFeedZSetService.addPostToFeed(userId, postId, timestamp);
-        verify(zSetOperations).addIfAbsent(feedKey, postId.toString(), score);
-        verify(zSetOperations).removeRange(feedKey, 0, -feedSize - 1);
+    @DisplayName("Scores keep millisecond order and differ for posts created in the same second")
+    void toScore_ShouldBeFinerThanSecondsAndDistinctForSameTimestamp() {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 5, 1, 12, 0, 0, 0);
+        long first = UserFeedZSetService.toScore(timestamp, 1L);
+        long second = UserFeedZSetService.toScore(timestamp, 2L);
+        long later = UserFeedZSetService.toScore(timestamp.plusNanos(1_000_000), 1L);
+        assertNotEquals(first, second);
+        assertTrue(later > second);
+        assertEquals(first, (long) (double) first);
     }
 
     @Test
-    @DisplayName("Get feed posts without last post ID returns latest posts")
-    void getFeedPosts_WhenNoLastPostId_ShouldReturnLatestPosts() {
+    @DisplayName("Get feed posts without cursor returns latest posts")
+    void getFeedPosts_WhenNoCursor_ShouldReturnLatestPosts() {
         Long userId = 1L;
         String feedKey = FEED_KEY_PREFIX + userId;
         int pageSize = 10;
-        Set<String> mockPosts = new LinkedHashSet<>(Arrays.asList("3", "2", "1"));
-        when(zSetOperations.reverseRange(feedKey, 0, pageSize - 1))
-                .thenReturn(mockPosts);
-        List<Long> result = userFeedZSetService.getFeedPosts(userId, null, pageSize);
-        assertEquals(3, result.size());
-        assertEquals(Arrays.asList(3L, 2L, 1L), result);
-        verify(zSetOperations).reverseRange(feedKey, 0, pageSize - 1);
+        when(zSetOperations.reverseRangeWithScores(feedKey, 0, pageSize - 1))
+                .thenReturn(tuples("3", 300, "2", 200, "1", 100));
+        List<FeedEntry> result = userFeedZSetService.getFeedPosts(userId, null, pageSize);
+        assertEquals(List.of(new FeedEntry(3L, 300), new FeedEntry(2L, 200), new FeedEntry(1L, 100)), result);
+        verify(zSetOperations).reverseRangeWithScores(feedKey, 0, pageSize - 1);
+        verify(zSetOperations, never()).score(anyString(), any());
     }
 
     @Test
-    @DisplayName("Get feed posts with last post ID returns older posts")
-    void getFeedPosts_WithLastPostId_ShouldReturnOlderPosts() {
-        Long userId = 1L;
-        Long lastPostId = 3L;
-        String feedKey = FEED_KEY_PREFIX + userId;
-        int pageSize = 10;
-        double mockScore = 1000.0;
-        Set<String> mockPosts = new LinkedHashSet<>(Arrays.asList("2", "1"));
-        when(zSetOperations.score(feedKey, lastPostId.toString()))
-                .thenReturn(mockScore);
-        when(zSetOperations.reverseRangeByScore(
-                eq(feedKey),
-                eq(Double.NEGATIVE_INFINITY),
-                eq(mockScore),
-                eq(0L),
-                eq((long) pageSize)))
-                .thenReturn(mockPosts);
-        List<Long> result = userFeedZSetService.getFeedPosts(userId, lastPostId, pageSize);
-        assertEquals(2, result.size());
-        assertEquals(Arrays.asList(2L, 1L), result);
-        verify(zSetOperations).score(feedKey, lastPostId.toString());
-        verify(zSetOperations).reverseRangeByScore(
-                eq(feedKey),
-                eq(Double.NEGATIVE_INFINITY),
-                eq(mockScore),
-                eq(0L),
-                eq((long) pageSize));
-    }
-
-    @Test
-    @DisplayName("Get feed posts when last post not found returns empty list")
-    void getFeedPosts_WhenLastPostNotFound_ShouldReturnEmptyList() {
-        Long userId = 1L;
-        Long lastPostId = 999L;
-        String feedKey = FEED_KEY_PREFIX + userId;
-        int pageSize = 10;
-        when(zSetOperations.score(feedKey, lastPostId.toString()))
-                .thenReturn(null);
-        List<Long> result = userFeedZSetService.getFeedPosts(userId, lastPostId, pageSize);
-        assertTrue(result.isEmpty());
-        verify(zSetOperations).score(feedKey, lastPostId.toString());
+    @DisplayName("Get feed posts with cursor reads tied and strictly older posts in one pipeline")
+    @SuppressWarnings("unchecked")
+    void getFeedPosts_WithCursor_ShouldSkipCursorPostAndReturnOlderPosts() {
+        byte[] feedKey = (FEED_KEY_PREFIX + 1L).getBytes(StandardCharsets.UTF_8);
+        RedisZSetCommands zSetCommands = pipelineReturning(List.of(tuples("3", 300), tuples("2", 200, "1", 100)));
+        List<FeedEntry> result = userFeedZSetService.getFeedPosts(1L, new FeedCursor(300, 3L), 2);
+        assertEquals(List.of(new FeedEntry(2L, 200), new FeedEntry(1L, 100)), result);
+        verify(zSetCommands).zRevRangeByScoreWithScores(feedKey, Range.just(300.0));
+        verify(zSetCommands).zRevRangeByScoreWithScores(aryEq(feedKey),
+                eq(Range.of(Bound.unbounded(), Bound.exclusive(300.0))), any(Limit.class));
+        verify(zSetOperations, never()).reverseRangeByScoreWithScores(
+                anyString(), anyDouble(), anyDouble(), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Get feed posts with cursor keeps posts sharing the cursor score that were not served yet")
+    @SuppressWarnings("unchecked")
+    void getFeedPosts_WithTiedScores_ShouldNotSkipOrRepeatPosts() {
+        pipelineReturning(List.of(tuples("6", 300, "5", 300, "4", 300), tuples("1", 100)));
+        List<FeedEntry> result = userFeedZSetService.getFeedPosts(1L, new FeedCursor(300, 5L), 2);
+        assertEquals(List.of(new FeedEntry(4L, 300), new FeedEntry(1L, 100)), result);
+    }
+
+    @Test
+    @DisplayName("A full page is returned when more posts than the over-fetch share the cursor score")
+    @SuppressWarnings("unchecked")
+    void getTimelinesPosts_WithManyTiedScores_ShouldReturnFullPage() {
+        pipelineReturning(List.of(
+                tuples("9", 300, "8", 300, "7", 300, "6", 300, "5", 300), tuples("1", 100),
+                Set.of(), tuples("2", 200)));
+        List<List<FeedEntry>> result = userFeedZSetService.getTimelinesPosts(
+                List.of(7L, 8L), new FeedCursor(300, 8L), 3);
+        assertEquals(List.of(
+                List.of(new FeedEntry(7L, 300), new FeedEntry(6L, 300), new FeedEntry(5L, 300)),
+                List.of(new FeedEntry(2L, 200))), result);
     }
 
     @Test
@@ -133,12 +143,11 @@ class UserFeedZSetServiceTest {
         Long userId = 1L;
         String feedKey = FEED_KEY_PREFIX + userId;
         int pageSize = 10;
-        when(zSetOperations.reverseRange(feedKey, 0, pageSize - 1))
+        when(zSetOperations.reverseRangeWithScores(feedKey, 0, pageSize - 1))
                 .thenReturn(null);
-        List<Long> result = userFeedZSetService.getFeedPosts(userId, null, pageSize);
+        List<FeedEntry> result = userFeedZSetService.getFeedPosts(userId, null, pageSize);
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(zSetOperations).reverseRange(feedKey, 0, pageSize - 1);
     }
 
     @Test
@@ -147,26 +156,184 @@ class UserFeedZSetServiceTest {
         Long userId = 1L;
         String feedKey = FEED_KEY_PREFIX + userId;
         int pageSize = 10;
-        Set<String> mockPosts = new LinkedHashSet<>(Arrays.asList("not_a_number", "also_not_a_number"));
-        when(zSetOperations.reverseRange(feedKey, 0, pageSize - 1))
-                .thenReturn(mockPosts);
-        List<Long> result = userFeedZSetService.getFeedPosts(userId, null, pageSize);
+        when(zSetOperations.reverseRangeWithScores(feedKey, 0, pageSize - 1))
+                .thenReturn(tuples("not_a_number", 200, "also_not_a_number", 100));
+        List<FeedEntry> result = userFeedZSetService.getFeedPosts(userId, null, pageSize);
         assertTrue(result.isEmpty());
-        verify(zSetOperations).reverseRange(feedKey, 0, pageSize - 1);
     }
 
     @Test
-    @DisplayName("Add post to feed with duplicate post should still trim feed")
-    void addPostToFeed_WhenAddingDuplicatePost_ShouldStillTrimFeed() {
-        Long userId = 1L;
+    @DisplayName("Add post to feeds should fan in all subscribers with a single script call")
+    void addPostToFeeds_ShouldExecuteSingleScriptForAllSubscribers() {
         Long postId = 100L;
         LocalDateTime timestamp = LocalDateTime.now();
-        String feedKey = FEED_KEY_PREFIX + userId;
-        double score = timestamp.toEpochSecond(ZoneOffset.UTC);
-        when(zSetOperations.addIfAbsent(feedKey, postId.toString(), score))
-                .thenReturn(false);
-        userFeedZSetService.addPostToFeed(userId, postId, timestamp);
-        verify(zSetOperations).addIfAbsent(feedKey, postId.toString(), score);
-        verify(zSetOperations).removeRange(feedKey, 0, -1);
-    }
-}
\ No newline at end of file
+        long score = UserFeedZSetService.toScore(timestamp, postId);
+        userFeedZSetService.addPostToFeeds(new long[]{1L, 2L}, postId, timestamp);
+        verify(redisTemplate).execute(
+                any(RedisScript.class),
+                eq(List.of(FEED_KEY_PREFIX + 1L, FEED_KEY_PREFIX + 2L)),
+                eq(postId.toString()),
+                eq(String.valueOf(score)),
+                anyString());
+        verify(zSetOperations, never()).addIfAbsent(anyString(), anyString(), anyDouble());
+    }
+
+    @Test
+    @DisplayName("Add post to feeds without subscribers should not call Redis")
+    void addPostToFeeds_WithoutSubscribers_ShouldNotCallRedis() {
+        userFeedZSetService.addPostToFeeds(new long[0], 100L, LocalDateTime.now());
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisZSetCommands pipelineReturning(List<Object> results) {
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisZSetCommands zSetCommands = mock(RedisZSetCommands.class);
+        when(connection.zSetCommands()).thenReturn(zSetCommands);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            invocation.<RedisCallback<Object>>getArgument(0).doInRedis(connection);
+            return results;
+        });
+        return zSetCommands;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runPipeline(RedisConnection connection) {
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            invocation.<RedisCallback<Object>>getArgument(0).doInRedis(connection);
+            return List.of();
+        });
+    }
+
+    private Set<TypedTuple<String>> tuples(Object... valuesAndScores) {
+        Set<TypedTuple<String>> tuples = new LinkedHashSet<>();
+        for (int i = 0; i < valuesAndScores.length; i += 2) {
+            tuples.add(new DefaultTypedTuple<>((String) valuesAndScores[i],
+                    ((Integer) valuesAndScores[i + 1]).doubleValue()));
+        }
+        return tuples;
+    }
+
+    @Test
+    @DisplayName("Add posts to feed should write the whole rebuild in one pipeline")
+    @SuppressWarnings("unchecked")
+    void addPostsToFeed_ShouldWriteAllPostsInSinglePipeline() {
+        Long userId = 1L;
+        LocalDateTime timestamp = LocalDateTime.now();
+        byte[] feedKey = (FEED_KEY_PREFIX + userId).getBytes(StandardCharsets.UTF_8);
+        int feedSize = (int) ReflectionTestUtils.getField(userFeedZSetService, "feed_size");
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisZSetCommands zSetCommands = mock(RedisZSetCommands.class);
+        when(connection.zSetCommands()).thenReturn(zSetCommands);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            invocation.<RedisCallback<Object>>getArgument(0).doInRedis(connection);
+            return List.of();
+        });
+        userFeedZSetService.addPostsToFeed(userId, Map.of(1L, timestamp, 2L, timestamp.minusMinutes(1)));
+        ArgumentCaptor<Set<Tuple>> tuples = ArgumentCaptor.forClass(Set.class);
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+        verify(zSetCommands).zAdd(eq(feedKey), tuples.capture());
+        verify(zSetCommands).zRemRange(feedKey, 0, -feedSize - 1);
+        assertEquals(2, tuples.getValue().size());
+        verify(zSetOperations, never()).addIfAbsent(anyString(), anyString(), anyDouble());
+    }
+
+    @Test
+    @DisplayName("Add posts to feed without posts should not call Redis")
+    void addPostsToFeed_WithoutPosts_ShouldNotCallRedis() {
+        userFeedZSetService.addPostsToFeed(1L, Map.of());
+        verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    @DisplayName("Add post to timeline should write author timeline and mark author as celebrity")
+    @SuppressWarnings("unchecked")
+    void addPostToTimeline_ShouldWriteTimelineAndCelebritySetInOnePipeline() {
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisZSetCommands zSetCommands = mock(RedisZSetCommands.class);
+        RedisSetCommands setCommands = mock(RedisSetCommands.class);
+        when(connection.zSetCommands()).thenReturn(zSetCommands);
+        when(connection.setCommands()).thenReturn(setCommands);
+        runPipeline(connection);
+        LocalDateTime timestamp = LocalDateTime.now();
+        double score = UserFeedZSetService.toScore(timestamp, 100L);
+        byte[] timelineKey = "timeline:7".getBytes(StandardCharsets.UTF_8);
+        int feedSize = (int) ReflectionTestUtils.getField(userFeedZSetService, "feed_size");
+
+        userFeedZSetService.addPostToTimeline(7L, 100L, timestamp);
+
+        ArgumentCaptor<ZAddArgs> zAddArgs = ArgumentCaptor.forClass(ZAddArgs.class);
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+        verify(zSetCommands).zAdd(aryEq(timelineKey), eq(score), aryEq("100".getBytes(StandardCharsets.UTF_8)),
+                zAddArgs.capture());
+        assertTrue(zAddArgs.getValue().contains(ZAddArgs.Flag.NX));
+        verify(zSetCommands).zRemRange(aryEq(timelineKey), eq(0L), eq((long) -feedSize - 1));
+        verify(setCommands).sAdd(aryEq("celebrities".getBytes(StandardCharsets.UTF_8)),
+                aryEq("7".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Demoted celebrity is removed from the celebrity set and loses its timeline")
+    void removeCelebrity_ShouldDropMembershipAndTimeline() {
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisSetCommands setCommands = mock(RedisSetCommands.class);
+        RedisKeyCommands keyCommands = mock(RedisKeyCommands.class);
+        when(connection.setCommands()).thenReturn(setCommands);
+        when(connection.keyCommands()).thenReturn(keyCommands);
+        runPipeline(connection);
+
+        userFeedZSetService.removeCelebrity(7L);
+
+        verify(setCommands).sRem(aryEq("celebrities".getBytes(StandardCharsets.UTF_8)),
+                aryEq("7".getBytes(StandardCharsets.UTF_8)));
+        verify(keyCommands).del(aryEq("timeline:7".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Timelines of all followed celebrities are read in one pipeline")
+    @SuppressWarnings("unchecked")
+    void getTimelinesPosts_ShouldReadAllTimelinesInSinglePipeline() {
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisZSetCommands zSetCommands = mock(RedisZSetCommands.class);
+        when(connection.zSetCommands()).thenReturn(zSetCommands);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            invocation.<RedisCallback<Object>>getArgument(0).doInRedis(connection);
+            return List.of(tuples("3", 300, "1", 100), Set.of());
+        });
+        List<List<FeedEntry>> result = userFeedZSetService.getTimelinesPosts(List.of(7L, 8L), null, 2);
+        assertEquals(List.of(List.of(new FeedEntry(3L, 300), new FeedEntry(1L, 100)), List.of()), result);
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+        verify(zSetCommands).zRevRangeWithScores("timeline:7".getBytes(StandardCharsets.UTF_8), 0, 1);
+        verify(zSetCommands).zRevRangeWithScores("timeline:8".getBytes(StandardCharsets.UTF_8), 0, 1);
+    }
+
+    @Test
+    @DisplayName("Reading timelines of no celebrities should not call Redis")
+    void getTimelinesPosts_WithoutAuthors_ShouldNotCallRedis() {
+        assertTrue(userFeedZSetService.getTimelinesPosts(List.of(), null, 2).isEmpty());
+        verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    @DisplayName("Filter celebrities keeps only authors from the celebrity set")
+    @SuppressWarnings("unchecked")
+    void filterCelebrities_ShouldKeepOnlyCelebrities() {
+        SetOperations<String, String> setOperations = mock(SetOperations.class);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.isMember("celebrities", "1", "7")).thenReturn(Map.of("1", false, "7", true));
+        assertEquals(List.of(7L), userFeedZSetService.filterCelebrities(List.of(1L, 7L)));
+    }
+
+    @Test
+    @DisplayName("Followed celebrities are read back from the cached list")
+    @SuppressWarnings("unchecked")
+    void getFollowedCelebrities_ShouldParseCachedList() {
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("celebrity-followees:1")).thenReturn("7,8");
+        when(valueOperations.get("celebrity-followees:2")).thenReturn("");
+        assertEquals(Optional.of(List.of(7L, 8L)), userFeedZSetService.getFollowedCelebrities(1L));
+        assertEquals(Optional.of(List.of()), userFeedZSetService.getFollowedCelebrities(2L));
+        assertEquals(Optional.empty(), userFeedZSetService.getFollowedCelebrities(3L));
+    }
+}
@@ -85,7 +85,7 @@ public class LikeServiceTest {
 
         verify(postService, times(1)).existsPost(postId);
         verify(likeRepository, times(1)).deleteByPostIdAndUserId(postId, userId);
-
+        verify(likeRepository, times(1)).recordPostLikeDeletion(postId);
     }
 
     @Test
@@ -99,6 +99,7 @@ public class LikeServiceTest {
 
         verify(postService, times(1)).existsPost(postId);
         verify(likeRepository, times(0)).deleteByPostIdAndUserId(postId, userId);
+        verify(likeRepository, times(0)).recordPostLikeDeletion(postId);
     }
 
     @Test
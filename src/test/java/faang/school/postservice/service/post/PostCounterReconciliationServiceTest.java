@@ -0,0 +1,126 @@
+package faang.school.postservice.service.post;
+
+import faang.school.postservice.dto.post.PostCounterDrift;
+import faang.school.postservice.repository.LikeRepository;
+import faang.school.postservice.repository.PostRepository;
+import faang.school.postservice.service.cash.PostCounterCache;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostCounterReconciliationServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+    @Mock
+    private LikeRepository likeRepository;
+    @Mock
+    private PostCounterCache postCounterCache;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PostCounterReconciliationService reconciliationService;
+    private OffsetDateTime settledBefore;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reconciliationService = new PostCounterReconciliationService(
+                postRepository, likeRepository, postCounterCache, meterRegistry);
+        settledBefore = OffsetDateTime.now();
+    }
+
+    @Test
+    void reconcileRange_WithDrift_ShouldApplyDeltasAndRecordDrift() {
+        when(postRepository.findCounterDrift(0, 100, settledBefore))
+                .thenReturn(List.of(new Drift(1L, 10L, 7L, 3L, 3L), new Drift(2L, 0L, 2L, 5L, 4L)));
+        when(postRepository.applyCounterCorrection(1L, -3L, 0L, settledBefore)).thenReturn(1);
+        when(postRepository.applyCounterCorrection(2L, 2L, -1L, settledBefore)).thenReturn(1);
+
+        List<PostCounterDrift> drifts = reconciliationService.reconcileRange(0, 100, settledBefore);
+
+        assertEquals(2, drifts.size());
+        verify(likeRepository).deleteLikeDeletionsBefore(settledBefore);
+        DistributionSummary likes = meterRegistry.get("post.counters.drift").tag("counter", "likes").summary();
+        DistributionSummary comments = meterRegistry.get("post.counters.drift").tag("counter", "comments").summary();
+        assertEquals(5, likes.totalAmount());
+        assertEquals(1, comments.totalAmount());
+        assertEquals(2, meterRegistry.get("post.counters.reconciled").counter().count());
+    }
+
+    @Test
+    void reconcileRange_WhenPostChangedAfterDriftRead_ShouldSkipIt() {
+        when(postRepository.findCounterDrift(0, 100, settledBefore))
+                .thenReturn(List.of(new Drift(1L, 10L, 7L, 3L, 3L), new Drift(2L, 0L, 2L, 5L, 4L)));
+        when(postRepository.applyCounterCorrection(1L, -3L, 0L, settledBefore)).thenReturn(0);
+        when(postRepository.applyCounterCorrection(2L, 2L, -1L, settledBefore)).thenReturn(1);
+
+        List<PostCounterDrift> drifts = reconciliationService.reconcileRange(0, 100, settledBefore);
+
+        assertEquals(1, drifts.size());
+        assertEquals(2L, drifts.get(0).getPostId());
+        assertEquals(1, meterRegistry.get("post.counters.reconciled").counter().count());
+    }
+
+    @Test
+    void reconcileRange_WithoutDrift_ShouldNotUpdate() {
+        when(postRepository.findCounterDrift(0, 100, settledBefore)).thenReturn(List.of());
+
+        assertTrue(reconciliationService.reconcileRange(0, 100, settledBefore).isEmpty());
+        verify(postRepository, never()).applyCounterCorrection(anyLong(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void refreshCachedCounters_ShouldApplyDeltasToCounterKeysOnly() {
+        reconciliationService.refreshCachedCounters(
+                List.of(new Drift(1L, 10L, 7L, 3L, 4L), new Drift(2L, 1L, 1L, 0L, 2L)));
+
+        verify(postCounterCache).incrementLikes(1L, -3L);
+        verify(postCounterCache).incrementComments(1L, 1L);
+        verify(postCounterCache, never()).incrementLikes(2L, 0L);
+        verify(postCounterCache).incrementComments(2L, 2L);
+    }
+
+    private record Drift(Long postId, Long storedLikes, Long actualLikes,
+                         Long storedComments, Long actualComments) implements PostCounterDrift {
+        @Override
+        public Long getPostId() {
+            return postId;
+        }
+
+        @Override
+        public Long getStoredLikes() {
+            return storedLikes;
+        }
+
+        @Override
+        public Long getActualLikes() {
+            return actualLikes;
+        }
+
+        @Override
+        public Long getStoredComments() {
+            return storedComments;
+        }
+
+        @Override
+        public Long getActualComments() {
+            return actualComments;
+        }
+    }
+}
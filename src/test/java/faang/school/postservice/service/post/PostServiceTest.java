@@ -4,7 +4,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.json.student.DtoBanShema;
 import faang.school.postservice.client.ProjectServiceClient;
 import faang.school.postservice.client.UserServiceClient;
-import faang.school.postservice.kafka.producer.KafkaPostProducer;
 import faang.school.postservice.publisher.MessageSenderForUserBanImpl;
 import faang.school.postservice.dto.post.*;
 import faang.school.postservice.dto.project.ProjectDto;
@@ -12,8 +11,13 @@ import faang.school.postservice.dto.user.UserDto;
 import faang.school.postservice.mapper.post.PostMapperImpl;
 import faang.school.postservice.model.Album;
 import faang.school.postservice.model.Post;
+import faang.school.postservice.model.PostOutboxEvent;
 import faang.school.postservice.model.Resource;
+import faang.school.postservice.redis.entities.PostCache;
+import faang.school.postservice.repository.PostOutboxRepository;
 import faang.school.postservice.repository.PostRepository;
+import faang.school.postservice.repository.redis.PostCacheStore;
+import faang.school.postservice.service.cash.PostNearCache;
 import faang.school.postservice.service.album.AlbumService;
 import faang.school.postservice.service.amazons3.Amazons3ServiceImpl;
 import faang.school.postservice.service.amazons3.processing.KeyKeeper;
@@ -45,6 +49,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -85,11 +90,15 @@ class PostServiceTest {
     @Mock
     private ObjectMapper objectMapper;
     @Mock
-    private KafkaPostProducer kafkaPostProducer;
+    private PostOutboxRepository postOutboxRepository;
     @Mock
     private Amazons3ServiceImpl amazonS3;
     @Mock
     private FileValidator fileValidator;
+    @Mock
+    private PostCacheStore postCacheStore;
+    @Mock
+    private PostNearCache postNearCache;
     private Validator validator;
 
     @BeforeEach
@@ -236,6 +245,7 @@ class PostServiceTest {
 
         verify(postRepository, times(1)).findById(postId);
         verify(postRepository, times(1)).save(any());
+        verify(postOutboxRepository, times(1)).save(any(PostOutboxEvent.class));
         verify(postMapper, times(1)).toDtoFromPost(any(Post.class));
 
         assertNotNull(result);
@@ -269,6 +279,7 @@ class PostServiceTest {
 
         verify(postRepository, times(1)).findById(postId);
         verify(postRepository, times(0)).save(any());
+        verifyNoInteractions(postOutboxRepository);
 
         assertTrue(exception.getMessage().contains("Post is already published"));
     }
@@ -378,6 +389,8 @@ class PostServiceTest {
 
         verify(postRepository, times(1)).findById(postId);
         verify(postRepository, times(1)).save(any());
+        verify(postCacheStore, times(1)).deleteById(postId);
+        verify(postNearCache).invalidate(postId);
         verify(postMapper, times(1)).toDtoFromPost(any(Post.class));
 
         assertNotNull(result);
@@ -927,6 +940,24 @@ class PostServiceTest {
         verify(messageSenderForUserBan, times((1))).send(objectMapper.writeValueAsString(dtoBanShema));
     }
 
+    @Test
+    @DisplayName("checkPostsForVerification evicts cached posts that lost verification")
+    void testCheckPostsForVerificationEvictsCachedUnverifiedPosts() throws IOException {
+        List<Post> posts = List.of(
+                Post.builder().id(1L).authorId(1L).verified(false).build(),
+                Post.builder().id(2L).authorId(1L).verified(false).build());
+        postService.setSizeNotVerifiedPostsForUsers(5);
+        when(postRepository.findByNotVerified()).thenReturn(posts);
+        when(postCacheStore.findAllById(Set.of(1L, 2L)))
+                .thenReturn(Map.of(2L, PostCache.builder().id(2L).verified(true).build()));
+
+        postService.checkPostsForVerification();
+
+        verify(postCacheStore).deleteById(2L);
+        verify(postCacheStore, never()).deleteById(1L);
+        verify(postNearCache).invalidate(2L);
+    }
+
     @Test
     @DisplayName("Test negative method checkPostsForVerification")
     void testNegativeCheckPostsForVerification() throws IOException {
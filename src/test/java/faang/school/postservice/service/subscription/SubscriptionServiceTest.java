@@ -1,6 +1,7 @@
 package faang.school.postservice.service.subscription;
 
 import faang.school.postservice.client.UserServiceClient;
+import faang.school.postservice.dto.user.SubscriberIdsPage;
 import faang.school.postservice.dto.user.UserDto;
 import faang.school.postservice.model.Post;
 import faang.school.postservice.repository.PostRepository;
@@ -13,18 +14,23 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -41,20 +47,13 @@ class SubscriptionServiceTest {
     @InjectMocks
     private SubscriptionService subscriptionService;
 
-    private Post testPost;
     private LocalDateTime now;
 
     @BeforeEach
     void setUp() {
         now = LocalDateTime.now();
         ReflectionTestUtils.setField(subscriptionService, "postsAgeMonths", 6);
-        testPost = Post.builder()
-                .id(1L)
-                .authorId(1L)
-                .projectId(1L)
-                .published(true)
-                .createdAt(now)
-                .build();
+        ReflectionTestUtils.setField(subscriptionService, "pagedSubscribers", true);
     }
 
     @Test
@@ -118,45 +117,103 @@ class SubscriptionServiceTest {
     }
 
     @Test
-    void getSubscriberIds_WithAuthorAndProject_ReturnsCombinedSubscribers() {
-        List<Long> authorSubscribers = Arrays.asList(1L, 2L);
-        List<Long> projectSubscribers = Arrays.asList(2L, 3L);
-        when(userServiceClient.getUserSubscribersIds(testPost.getAuthorId()))
-                .thenReturn(authorSubscribers);
-        when(userServiceClient.getProjectSubscriptions(testPost.getProjectId()))
-                .thenReturn(projectSubscribers);
-        Set<Long> result = subscriptionService.getSubscriberIds(testPost);
-        assertEquals(3, result.size());
-        assertTrue(result.containsAll(Arrays.asList(1L, 2L, 3L)));
+    void forEachUserSubscriberChunk_ShouldStreamAllPages() {
+        when(userServiceClient.getUserSubscriberIdsPage(1L, null, 2)).thenReturn(page(2L, 1L, 2L));
+        when(userServiceClient.getUserSubscriberIdsPage(1L, 2L, 2)).thenReturn(page(null, 5L));
+        List<long[]> chunks = new ArrayList<>();
+
+        long total = subscriptionService.forEachUserSubscriberChunk(1L, 2, chunks::add);
+
+        assertEquals(3, total);
+        assertEquals(2, chunks.size());
+        assertArrayEquals(new long[]{1L, 2L}, chunks.get(0));
+        assertArrayEquals(new long[]{5L}, chunks.get(1));
     }
 
     @Test
-    void getSubscriberIds_WithOnlyAuthor_ReturnsAuthorSubscribers() {
-        testPost.setProjectId(null);
-        List<Long> authorSubscribers = Arrays.asList(1L, 2L);
-        when(userServiceClient.getUserSubscribersIds(testPost.getAuthorId()))
-                .thenReturn(authorSubscribers);
-        Set<Long> result = subscriptionService.getSubscriberIds(testPost);
-        assertEquals(2, result.size());
-        assertTrue(result.containsAll(Arrays.asList(1L, 2L)));
+    void forEachProjectSubscriberChunk_WithEmptyPage_DoesNotEmitChunks() {
+        when(userServiceClient.getProjectSubscriberIdsPage(1L, null, 100)).thenReturn(page(null));
+        List<long[]> chunks = new ArrayList<>();
+
+        assertEquals(0, subscriptionService.forEachProjectSubscriberChunk(1L, 100, chunks::add));
+        assertTrue(chunks.isEmpty());
     }
 
     @Test
-    void getSubscriberIds_WithOnlyProject_ReturnsProjectSubscribers() {
-        testPost.setAuthorId(null);
-        List<Long> projectSubscribers = Arrays.asList(1L, 2L);
-        when(userServiceClient.getProjectSubscriptions(testPost.getProjectId()))
-                .thenReturn(projectSubscribers);
-        Set<Long> result = subscriptionService.getSubscriberIds(testPost);
-        assertEquals(2, result.size());
-        assertTrue(result.containsAll(Arrays.asList(1L, 2L)));
+    void forEachUserSubscriberChunk_WithClientException_Propagates() {
+        when(userServiceClient.getUserSubscriberIdsPage(anyLong(), any(), anyInt()))
+                .thenThrow(new RuntimeException("Service unavailable"));
+        assertThrows(RuntimeException.class,
+                () -> subscriptionService.forEachUserSubscriberChunk(1L, 100, chunk -> { }));
+    }
+
+    @Test
+    void forEachUserSubscriberChunk_WithoutPagedEndpoints_SplitsLegacyList() {
+        ReflectionTestUtils.setField(subscriptionService, "pagedSubscribers", false);
+        when(userServiceClient.getUserSubscribersIds(1L)).thenReturn(List.of(1L, 2L, 3L));
+        List<long[]> chunks = new ArrayList<>();
+
+        long total = subscriptionService.forEachUserSubscriberChunk(1L, 2, chunks::add);
+
+        assertEquals(3, total);
+        assertArrayEquals(new long[]{1L, 2L}, chunks.get(0));
+        assertArrayEquals(new long[]{3L}, chunks.get(1));
+        verify(userServiceClient, never()).getUserSubscriberIdsPage(anyLong(), any(), anyInt());
+    }
+
+    @Test
+    void forEachUserSubscriberChunk_WithFirstPage_ShouldNotFetchItAgain() {
+        ReflectionTestUtils.setField(subscriptionService, "pagedSubscribers", false);
+        when(userServiceClient.getUserSubscribersIds(1L)).thenReturn(List.of(1L, 2L, 3L));
+        List<long[]> chunks = new ArrayList<>();
+
+        SubscriberIdsPage firstPage = subscriptionService.getUserSubscriberPage(1L, null, 2);
+        long count = SubscriptionService.countSubscribers(firstPage);
+        long total = subscriptionService.forEachUserSubscriberChunk(1L, firstPage, 2, chunks::add);
+
+        assertEquals(3, count);
+        assertEquals(3, total);
+        assertEquals(2, chunks.size());
+        verify(userServiceClient, times(1)).getUserSubscribersIds(1L);
     }
 
     @Test
-    void getSubscriberIds_WithClientException_ReturnsEmptySet() {
-        when(userServiceClient.getUserSubscribersIds(anyLong()))
+    void getProjectSubscriberPage_WithoutPagedEndpoints_ReturnsWholeListWithTotal() {
+        ReflectionTestUtils.setField(subscriptionService, "pagedSubscribers", false);
+        when(userServiceClient.getProjectSubscriptions(1L)).thenReturn(List.of(4L, 5L));
+
+        SubscriberIdsPage page = subscriptionService.getProjectSubscriberPage(1L, null, 1);
+
+        assertArrayEquals(new long[]{4L, 5L}, page.getIds());
+        assertEquals(2L, page.getTotal());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getFolloweeIds_WithClientException_ReturnsEmptyList() {
+        when(userServiceClient.getUserFolloweeIds(anyLong()))
                 .thenThrow(new RuntimeException("Service unavailable"));
-        Set<Long> result = subscriptionService.getSubscriberIds(testPost);
-        assertEquals(Collections.emptySet(), result);
+        assertEquals(Collections.emptyList(), subscriptionService.getFolloweeIds(1L));
+    }
+
+    @Test
+    void findFolloweeIds_WithClientException_ReturnsEmptyOptional() {
+        when(userServiceClient.getUserFolloweeIds(anyLong()))
+                .thenThrow(new RuntimeException("Service unavailable"));
+        assertEquals(Optional.empty(), subscriptionService.findFolloweeIds(1L));
+    }
+
+    @Test
+    void countUserSubscribers_ShouldUseTotalOfFirstPage() {
+        when(userServiceClient.getUserSubscriberIdsPage(1L, null, 1))
+                .thenReturn(SubscriberIdsPage.builder().ids(new long[]{2L}).nextCursor(2L).total(25_000L).build());
+        assertEquals(25_000L, subscriptionService.countUserSubscribers(1L));
+    }
+
+    private SubscriberIdsPage page(Long nextCursor, long... ids) {
+        return SubscriberIdsPage.builder()
+                .ids(ids)
+                .nextCursor(nextCursor)
+                .build();
     }
-}
\ No newline at end of file
+}